@@ -0,0 +1,155 @@
+/**
+ * A small benchmark harness. A Benchmark repeats an operation for a number of
+ * warm up iterations (so the JIT compiler has finished with it) followed by a
+ * number of measured iterations, each one lasting about the same amount of
+ * time. The time per operation is reported as the mean of the measured
+ * iterations with its standard deviation, along with the rate of whatever
+ * the Benchmark counts (operations, or something else such as GameStates
+ * expanded).
+ *
+ * Results of the operations should be passed to consume so that the JIT
+ * compiler can't remove the work as dead code.
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public abstract class Benchmark
+{
+	private static volatile long sink;
+
+	private String name;
+	private String unit;
+
+	/**
+	 * Creates a new Benchmark
+	 *
+	 * @param name the name of the Benchmark
+	 * @param unit what the number returned by run counts (ex. "ops")
+	 */
+	protected Benchmark(String name, String unit)
+	{
+		this.name = name;
+		this.unit = unit;
+	}
+
+	/**
+	 * Gets the name of the Benchmark
+	 *
+	 * @return the name of the Benchmark
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * Prepares anything the operations need before the Benchmark starts
+	 */
+	protected void setUp()
+	{
+	}
+
+	/**
+	 * Does the operation the given number of times
+	 *
+	 * @param ops the number of operations to do
+	 * @return the number of units done (ex. ops, or GameStates expanded)
+	 */
+	protected abstract long run(int ops);
+
+	/**
+	 * Keeps a result so that the work done to find it can't be removed
+	 *
+	 * @param result the result to keep
+	 */
+	protected static void consume(long result)
+	{
+		sink += result;
+	}
+
+	/**
+	 * Keeps a result so that the work done to find it can't be removed
+	 *
+	 * @param result the result to keep
+	 */
+	protected static void consume(boolean result)
+	{
+		if (result)
+			sink++;
+	}
+
+	/**
+	 * Keeps a result so that the work done to find it can't be removed
+	 *
+	 * @param result the result to keep
+	 */
+	protected static void consume(Object result)
+	{
+		sink += System.identityHashCode(result);
+	}
+
+	/**
+	 * Runs the Benchmark and prints its results on one line
+	 *
+	 * @param warmUps the number of warm up iterations
+	 * @param iterations the number of measured iterations
+	 * @param iterationNanos how long each iteration should last
+	 */
+	public void measure(int warmUps, int iterations, long iterationNanos)
+	{
+		setUp();
+
+		// Find how many operations fill one iteration, starting small so that
+		// slow operations (ex. solving a deal) don't take too long
+		int ops = 1;
+		long time = time(ops);
+		while (time < iterationNanos / 10 && ops < Integer.MAX_VALUE / 2)
+		{
+			ops *= 2;
+			time = time(ops);
+		}
+		ops = (int) Math.max(1,
+				Math.min(Integer.MAX_VALUE, ops * iterationNanos / time));
+
+		for (int iteration = 0; iteration < warmUps; iteration++)
+			time(ops);
+
+		double[] nanosPerOp = new double[iterations];
+		long units = 0;
+		long totalTime = 0;
+		for (int iteration = 0; iteration < iterations; iteration++)
+		{
+			long start = System.nanoTime();
+			units += run(ops);
+			long elapsed = System.nanoTime() - start;
+			totalTime += elapsed;
+			nanosPerOp[iteration] = (double) elapsed / ops;
+		}
+
+		double mean = 0;
+		for (double next : nanosPerOp)
+			mean += next;
+		mean /= iterations;
+
+		double variance = 0;
+		for (double next : nanosPerOp)
+			variance += (next - mean) * (next - mean);
+		double deviation = Math.sqrt(variance / Math.max(1, iterations - 1));
+
+		System.out.printf("%-24s %14.1f ns/op +- %-10.1f %14.0f %s/s%n", name,
+				mean, deviation, units * 1e9 / totalTime, unit);
+	}
+
+	/**
+	 * Times the given number of operations
+	 *
+	 * @param ops the number of operations to do
+	 * @return the time taken in nanoseconds (at least 1)
+	 */
+	private long time(int ops)
+	{
+		long start = System.nanoTime();
+		run(ops);
+		return Math.max(1, System.nanoTime() - start);
+	}
+}
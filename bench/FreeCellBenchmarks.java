@@ -0,0 +1,401 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Benchmarks of the hot paths of FreeCell: the Card rules, shuffling, parsing
+ * and valuing Hands, finding the legal moves of a GameState and solving a
+ * fixed set of Microsoft deals, with the Solver and with the ParallelSolver
+ * on 1, 2, 4... threads up to the number of cores. Every Benchmark uses fixed
+ * seeds and deal numbers so that runs can be compared with each other.
+ *
+ * Usage: java FreeCellBenchmarks [-quick] [name...]
+ *
+ * Only the Benchmarks whose names contain one of the given names are run.
+ * -quick runs fewer and shorter iterations for a rough check.
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class FreeCellBenchmarks
+{
+	// The Microsoft deals used for the solver and legal move Benchmarks
+	private static final int CORPUS_FIRST_DEAL = 1;
+	private static final int CORPUS_SIZE = 32;
+
+	private static final long SEED = 20141129;
+
+	public static void main(String[] args)
+	{
+		int warmUps = 5;
+		int iterations = 10;
+		long iterationNanos = 1000000000L;
+		int noOfNames = 0;
+		String[] names = new String[args.length];
+		for (String arg : args)
+		{
+			if (arg.equals("-quick"))
+			{
+				warmUps = 2;
+				iterations = 3;
+				iterationNanos = 200000000L;
+			}
+			else
+				names[noOfNames++] = arg;
+		}
+
+		ArrayList<Benchmark> benchmarks = new ArrayList<Benchmark>(
+				Arrays.asList(new CanPlaceOnCascade(),
+						new CanPlaceOnFoundation(), new DeckShuffle(),
+						new HandParse(), new HandValue(), new LegalMoves(),
+						new SolveCorpus()));
+
+		// Sweep the threads of the ParallelSolver to see how it scales
+		int cores = Runtime.getRuntime().availableProcessors();
+		for (int threads = 1; threads < cores; threads *= 2)
+			benchmarks.add(new ParallelSolveCorpus(threads));
+		benchmarks.add(new ParallelSolveCorpus(cores));
+
+		for (Benchmark benchmark : benchmarks)
+		{
+			boolean selected = noOfNames == 0;
+			for (int name = 0; name < noOfNames; name++)
+				if (benchmark.getName().contains(names[name]))
+					selected = true;
+
+			if (selected)
+				benchmark.measure(warmUps, iterations, iterationNanos);
+		}
+	}
+
+	/**
+	 * Makes the given number of pairs of random Cards from a full Deck
+	 *
+	 * @param noOfPairs the number of pairs
+	 * @return the Cards, the pairs are next to each other
+	 */
+	private static Card[] randomPairs(int noOfPairs)
+	{
+		Deck deck = new Deck();
+		Card[] cards = new Card[52];
+		for (int card = 0; card < 52; card++)
+			cards[card] = deck.dealCard();
+
+		SplittableRandom random = new SplittableRandom(SEED);
+		Card[] pairs = new Card[noOfPairs * 2];
+		for (int card = 0; card < pairs.length; card++)
+			pairs[card] = cards[random.nextInt(52)];
+
+		return pairs;
+	}
+
+	/**
+	 * Card.canPlaceOnCascade on random pairs of Cards
+	 */
+	private static class CanPlaceOnCascade extends Benchmark
+	{
+		private Card[] pairs;
+
+		private CanPlaceOnCascade()
+		{
+			super("card.canPlaceOnCascade", "ops");
+		}
+
+		protected void setUp()
+		{
+			pairs = randomPairs(1024);
+		}
+
+		protected long run(int ops)
+		{
+			int placed = 0;
+			for (int op = 0; op < ops; op++)
+			{
+				int pair = (op & 1023) * 2;
+				if (pairs[pair].canPlaceOnCascade(pairs[pair + 1]))
+					placed++;
+			}
+			consume(placed);
+			return ops;
+		}
+	}
+
+	/**
+	 * Card.canPlaceOnFoundation on random pairs of Cards
+	 */
+	private static class CanPlaceOnFoundation extends Benchmark
+	{
+		private Card[] pairs;
+
+		private CanPlaceOnFoundation()
+		{
+			super("card.canPlaceOnFoundation", "ops");
+		}
+
+		protected void setUp()
+		{
+			pairs = randomPairs(1024);
+		}
+
+		protected long run(int ops)
+		{
+			int placed = 0;
+			for (int op = 0; op < ops; op++)
+			{
+				int pair = (op & 1023) * 2;
+				if (pairs[pair].canPlaceOnFoundation(pairs[pair + 1]))
+					placed++;
+			}
+			consume(placed);
+			return ops;
+		}
+	}
+
+	/**
+	 * Deck.shuffle of a full Deck with a seeded RandomGenerator
+	 */
+	private static class DeckShuffle extends Benchmark
+	{
+		private Deck deck;
+		private SplittableRandom random;
+
+		private DeckShuffle()
+		{
+			super("deck.shuffle", "ops");
+		}
+
+		protected void setUp()
+		{
+			deck = new Deck();
+			random = new SplittableRandom(SEED);
+		}
+
+		protected long run(int ops)
+		{
+			for (int op = 0; op < ops; op++)
+				deck.shuffle(random);
+			consume(deck.dealCard());
+			return ops;
+		}
+	}
+
+	/**
+	 * new Hand(String) on the Cascades of the corpus deals
+	 */
+	private static class HandParse extends Benchmark
+	{
+		private String[] cascades;
+
+		private HandParse()
+		{
+			super("hand.parse", "ops");
+		}
+
+		protected void setUp()
+		{
+			cascades = new String[CORPUS_SIZE * GameState.NO_OF_CASCADES];
+			GameState state = new GameState();
+			for (int deal = 0; deal < CORPUS_SIZE; deal++)
+			{
+				state.deal(corpusDeal(deal));
+				for (int pile = 0; pile < GameState.NO_OF_CASCADES; pile++)
+				{
+					StringBuilder cascade = new StringBuilder();
+					for (int card = 0; card < state.cardsLeft(pile); card++)
+					{
+						cascade.append(GameState.toString(state.getCard(pile,
+								card)));
+						cascade.append(' ');
+					}
+					cascades[deal * GameState.NO_OF_CASCADES + pile] = cascade
+							.toString();
+				}
+			}
+		}
+
+		protected long run(int ops)
+		{
+			int cards = 0;
+			for (int op = 0; op < ops; op++)
+				cards += new Hand(cascades[op % cascades.length]).cardsLeft();
+			consume(cards);
+			return ops;
+		}
+	}
+
+	/**
+	 * Hand.getValue on random Hands of 2 to 6 Cards
+	 */
+	private static class HandValue extends Benchmark
+	{
+		private Hand[] hands;
+
+		private HandValue()
+		{
+			super("hand.getValue", "ops");
+		}
+
+		protected void setUp()
+		{
+			SplittableRandom random = new SplittableRandom(SEED);
+			Deck deck = new Deck();
+			hands = new Hand[256];
+			for (int hand = 0; hand < hands.length; hand++)
+			{
+				deck.shuffle(random);
+				hands[hand] = new Hand();
+				int noOfCards = random.nextInt(2, 7);
+				for (int card = 0; card < noOfCards; card++)
+					hands[hand].addCard(deck.dealCard());
+			}
+		}
+
+		protected long run(int ops)
+		{
+			int total = 0;
+			for (int op = 0; op < ops; op++)
+				total += hands[op & 255].getValue();
+			consume(total);
+			return ops;
+		}
+	}
+
+	/**
+	 * GameState.legalMoves on positions part way through the corpus deals
+	 * (reached by random legal moves)
+	 */
+	private static class LegalMoves extends Benchmark
+	{
+		private GameState[] states;
+		private int[] moves;
+
+		private LegalMoves()
+		{
+			super("gameState.legalMoves", "ops");
+		}
+
+		protected void setUp()
+		{
+			SplittableRandom random = new SplittableRandom(SEED);
+			moves = new int[GameState.MAX_MOVES];
+			states = new GameState[CORPUS_SIZE * 4];
+			for (int state = 0; state < states.length; state++)
+			{
+				GameState next = new GameState();
+				next.deal(corpusDeal(state / 4));
+
+				// Play up to 10 random moves per quarter of the positions
+				int noOfMoves = state % 4 * 10;
+				for (int move = 0; move < noOfMoves; move++)
+				{
+					int legal = next.legalMoves(moves);
+					if (legal == 0)
+						break;
+					next.apply(moves[random.nextInt(legal)]);
+				}
+				states[state] = next;
+			}
+		}
+
+		protected long run(int ops)
+		{
+			int total = 0;
+			for (int op = 0; op < ops; op++)
+				total += states[op % states.length].legalMoves(moves);
+			consume(total);
+			return ops;
+		}
+	}
+
+	/**
+	 * Solver.solve on every one of the corpus deals per operation, the rate is
+	 * the number of GameStates expanded per second
+	 */
+	private static class SolveCorpus extends Benchmark
+	{
+		private Solver solver;
+		private int[][] deals;
+
+		private SolveCorpus()
+		{
+			super("solver.solve", "states");
+		}
+
+		protected void setUp()
+		{
+			solver = new Solver();
+			deals = corpusDeals();
+		}
+
+		protected long run(int ops)
+		{
+			long nodes = 0;
+			for (int op = 0; op < ops; op++)
+				for (int[] deal : deals)
+					nodes += solver.solve(deal).getNodesExpanded();
+			consume(nodes);
+			return nodes;
+		}
+	}
+
+	/**
+	 * ParallelSolver.solve with a given number of threads on every one of the
+	 * corpus deals per operation, the rate is the number of GameStates
+	 * expanded per second by all of the threads
+	 */
+	private static class ParallelSolveCorpus extends Benchmark
+	{
+		private int threads;
+		private ParallelSolver solver;
+		private int[][] deals;
+
+		private ParallelSolveCorpus(int threads)
+		{
+			super("parallelSolver.solve/" + threads + "t", "states");
+			this.threads = threads;
+		}
+
+		protected void setUp()
+		{
+			solver = new ParallelSolver(new BlockingHeuristic(),
+					Solver.DEFAULT_MAX_NODES, threads);
+			deals = corpusDeals();
+		}
+
+		protected long run(int ops)
+		{
+			long nodes = 0;
+			for (int op = 0; op < ops; op++)
+				for (int[] deal : deals)
+					nodes += solver.solve(deal).getNodesExpanded();
+			consume(nodes);
+			return nodes;
+		}
+	}
+
+	/**
+	 * Finds the Cards of every one of the corpus deals
+	 *
+	 * @return the card codes of each deal in the order they are dealt
+	 */
+	private static int[][] corpusDeals()
+	{
+		int[][] deals = new int[CORPUS_SIZE][];
+		for (int deal = 0; deal < CORPUS_SIZE; deal++)
+			deals[deal] = corpusDeal(deal);
+		return deals;
+	}
+
+	/**
+	 * Finds the Cards of one of the corpus deals
+	 *
+	 * @param deal the index of the deal in the corpus
+	 * @return the card codes in the order they are dealt
+	 */
+	private static int[] corpusDeal(int deal)
+	{
+		int[] dealtCards = new int[52];
+		new DealGenerator().deal(CORPUS_FIRST_DEAL + deal, dealtCards);
+		return dealtCards;
+	}
+}
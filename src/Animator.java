@@ -0,0 +1,187 @@
+import java.awt.Point;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+
+import javax.swing.JComponent;
+import javax.swing.Timer;
+
+/**
+ * Animates GCards moving across a component without blocking the Event
+ * Dispatch Thread. Each move is a tween from one position to another over a
+ * fixed time, and any number of tweens can run at once (ex. a whole deal or
+ * a chain of auto moves). A javax.swing.Timer fires about 60 times a second
+ * and moves every Card to where it should be for the time that has passed,
+ * so the animation takes the same time even if some frames are late. Mouse
+ * events are handled between frames, and finish moves every Card straight to
+ * the end of its tween so an animation can be skipped at any time.
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class Animator implements ActionListener
+{
+	private static final int FRAME_DELAY = 15;
+
+	private JComponent component;
+	private Timer timer;
+	private ArrayList<Tween> tweens;
+
+	/**
+	 * Creates a new Animator
+	 *
+	 * @param component the component the Cards are drawn on
+	 */
+	public Animator(JComponent component)
+	{
+		this.component = component;
+		tweens = new ArrayList<Tween>();
+		timer = new Timer(FRAME_DELAY, this);
+		timer.setCoalesce(true);
+	}
+
+	/**
+	 * Starts moving a Card from one position to another. The Card is shown
+	 * at the start position until the tween starts
+	 *
+	 * @param card the Card to move (already in its new Hand)
+	 * @param fromPos the position to move the Card from
+	 * @param toPos the position to move the Card to
+	 * @param startDelay the number of milliseconds to wait before moving
+	 * @param duration the number of milliseconds the move takes
+	 */
+	public void animate(GCard card, Point fromPos, Point toPos, int startDelay,
+			int duration)
+	{
+		long startTime = System.nanoTime() + startDelay * 1000000L;
+		tweens.add(new Tween(card, fromPos, toPos, startTime,
+				duration * 1000000L));
+		repaintCard(card);
+		card.setPosition(new Point(fromPos));
+		repaintCard(card);
+
+		if (!timer.isRunning())
+			timer.start();
+	}
+
+	/**
+	 * Checks if any Cards are still moving
+	 *
+	 * @return true if a Card is moving or waiting to move, false if not
+	 */
+	public boolean isAnimating()
+	{
+		return !tweens.isEmpty();
+	}
+
+	/**
+	 * Moves every Card to the end of its tween straight away, skipping the
+	 * rest of the animation
+	 */
+	public void finish()
+	{
+		if (tweens.isEmpty())
+			return;
+
+		for (Tween next : tweens)
+		{
+			repaintCard(next.card);
+			next.card.setPosition(next.toPos);
+			repaintCard(next.card);
+		}
+		tweens.clear();
+		timer.stop();
+	}
+
+	/**
+	 * Moves each Card to its position for the current time, called by the
+	 * Timer for every frame
+	 *
+	 * @param event the Timer event
+	 */
+	public void actionPerformed(ActionEvent event)
+	{
+		long now = System.nanoTime();
+		for (int next = tweens.size() - 1; next >= 0; next--)
+		{
+			// Repaint where the Card was and where it is now
+			GCard card = tweens.get(next).card;
+			repaintCard(card);
+			boolean done = tweens.get(next).update(now);
+			repaintCard(card);
+			if (done)
+				tweens.remove(next);
+		}
+
+		if (tweens.isEmpty())
+			timer.stop();
+	}
+
+	/**
+	 * Marks the area a Card covers to be repainted
+	 *
+	 * @param card the Card
+	 */
+	private void repaintCard(GCard card)
+	{
+		Point position = card.getPosition();
+		component.repaint(position.x, position.y, GCard.WIDTH, GCard.HEIGHT);
+	}
+
+	/**
+	 * The move of one Card from one position to another
+	 */
+	private static class Tween
+	{
+		private GCard card;
+		private Point fromPos;
+		private Point toPos;
+		private long startTime;
+		private long duration;
+
+		/**
+		 * Creates a new Tween
+		 *
+		 * @param card the Card to move
+		 * @param fromPos the position to move the Card from
+		 * @param toPos the position to move the Card to
+		 * @param startTime the time to start moving from System.nanoTime
+		 * @param duration the number of nanoseconds the move takes
+		 */
+		private Tween(GCard card, Point fromPos, Point toPos, long startTime,
+				long duration)
+		{
+			this.card = card;
+			this.fromPos = new Point(fromPos);
+			this.toPos = toPos;
+			this.startTime = startTime;
+			this.duration = Math.max(duration, 1);
+		}
+
+		/**
+		 * Moves the Card to its position at the given time
+		 *
+		 * @param now the current time from System.nanoTime
+		 * @return true if the Card has reached the end, false if not
+		 */
+		private boolean update(long now)
+		{
+			if (now < startTime)
+				return false;
+
+			double progress = (double) (now - startTime) / duration;
+			if (progress >= 1)
+			{
+				card.setPosition(toPos);
+				return true;
+			}
+
+			// Slow down towards the end of the move
+			progress = 1 - (1 - progress) * (1 - progress);
+			Point position = card.getPosition();
+			position.x = fromPos.x + (int) ((toPos.x - fromPos.x) * progress);
+			position.y = fromPos.y + (int) ((toPos.y - fromPos.y) * progress);
+			return false;
+		}
+	}
+}
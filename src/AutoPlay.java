@@ -0,0 +1,250 @@
+import java.util.Arrays;
+
+/**
+ * Moves Cards that are safe to move up to the Foundations of a GameState. A
+ * Card is safe to move up if it is an Ace or a 2, or if both Foundations of
+ * the opposite colour are already up to one rank below it (so no Card in play
+ * could ever need to be placed on it). The rank each suit is up to on the
+ * Foundations is kept by suit, so checking a Card is O(1).
+ *
+ * Instead of scanning every pile until nothing moves, only the piles a move
+ * affected are checked: the pile a Card came from (it has a new top Card)
+ * and, when a Card goes up to a Foundation, the piles whose top Card is the
+ * next rank of the same suit or of the opposite colour (the only Cards the
+ * move could have made safe). So after a move in a position where nothing
+ * was safe, play only has to look at a few piles.
+ *
+ * Used by the CardPanel to auto complete, by the Solver and ParallelSolver
+ * after every move, and by anything else that plays out games. An AutoPlay
+ * keeps its own working arrays, so each thread should use its own AutoPlay.
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class AutoPlay
+{
+	// The piles Cards can be moved up from (the Cascades and FreeCells)
+	private static final int NO_OF_SOURCES = GameState.FIRST_FOUNDATION;
+
+	private GameState state;
+
+	// The rank each suit is up to on the Foundations (0 for none) and the
+	// Foundation each suit is on (-1 for none yet), by suit (1 - 4)
+	private int[] levels;
+	private int[] foundations;
+
+	// The pile each Card was last seen on top of, by card code
+	private int[] pileOfTop;
+
+	// The piles left to check, and a bit for each pile in the worklist
+	private int[] worklist;
+	private int noOfQueued;
+	private int queued;
+
+	/**
+	 * Creates a new AutoPlay
+	 */
+	public AutoPlay()
+	{
+		levels = new int[5];
+		foundations = new int[5];
+		pileOfTop = new int[52];
+		Arrays.fill(pileOfTop, -1);
+		worklist = new int[NO_OF_SOURCES];
+	}
+
+	/**
+	 * Moves every Card that is safe to move up to the Foundations, checking
+	 * every pile (use this when nothing is known about the GameState)
+	 *
+	 * @param state the GameState to change
+	 * @param moves the array to add the packed moves to
+	 * @param noOfMoves the number of moves already in the array
+	 * @return the number of moves in the array afterwards
+	 */
+	public int playAll(GameState state, int[] moves, int noOfMoves)
+	{
+		start(state);
+		for (int pile = 0; pile < NO_OF_SOURCES; pile++)
+			queue(pile);
+
+		return run(moves, noOfMoves);
+	}
+
+	/**
+	 * Moves every Card that is safe to move up to the Foundations after the
+	 * given move, checking only the piles the move affected
+	 *
+	 * Precondition: no Card was safe to move up before the last move (ex.
+	 * play or playAll was called after every earlier move)
+	 *
+	 * @param state the GameState to change (the last move has been applied)
+	 * @param lastMove the packed move that was just applied
+	 * @param moves the array to add the packed moves to
+	 * @param noOfMoves the number of moves already in the array
+	 * @return the number of moves in the array afterwards
+	 */
+	public int play(GameState state, int lastMove, int[] moves, int noOfMoves)
+	{
+		start(state);
+		queue(GameState.moveFrom(lastMove));
+
+		// A Card moved up to a Foundation could make other Cards safe
+		int to = GameState.moveTo(lastMove);
+		if (GameState.isFoundation(to))
+			queueUnblocked(state.getTopCard(to));
+
+		return run(moves, noOfMoves);
+	}
+
+	/**
+	 * Checks if the given Card is safe to move up to the Foundations and can
+	 * be placed there, using the Foundations found by the last call to play
+	 * or playAll
+	 *
+	 * @param card the card code
+	 * @return true if the Card can be moved up safely, false if not
+	 */
+	private boolean isSafe(int card)
+	{
+		int rank = GameState.rank(card);
+		if (levels[GameState.suit(card)] != rank - 1)
+			return false;
+
+		if (rank <= 2)
+			return true;
+
+		// Check the Foundations of the opposite colour
+		if (GameState.isRed(card))
+			return levels[1] >= rank - 1 && levels[4] >= rank - 1;
+
+		return levels[2] >= rank - 1 && levels[3] >= rank - 1;
+	}
+
+	/**
+	 * Finds the rank of each suit on the Foundations and the top Card of each
+	 * pile for a new call to play or playAll
+	 *
+	 * @param state the GameState being played
+	 */
+	private void start(GameState state)
+	{
+		this.state = state;
+		noOfQueued = 0;
+		queued = 0;
+
+		Arrays.fill(levels, 0);
+		Arrays.fill(foundations, -1);
+		for (int pile = GameState.FIRST_FOUNDATION;
+				pile < GameState.NO_OF_PILES; pile++)
+		{
+			int topCard = state.getTopCard(pile);
+			if (topCard >= 0)
+			{
+				levels[GameState.suit(topCard)] = GameState.rank(topCard);
+				foundations[GameState.suit(topCard)] = pile;
+			}
+		}
+
+		for (int pile = 0; pile < NO_OF_SOURCES; pile++)
+		{
+			int topCard = state.getTopCard(pile);
+			if (topCard >= 0)
+				pileOfTop[topCard] = pile;
+		}
+	}
+
+	/**
+	 * Moves up the top Card of each pile in the worklist when it is safe,
+	 * adding the piles each move affects to the worklist
+	 *
+	 * @param moves the array to add the packed moves to
+	 * @param noOfMoves the number of moves already in the array
+	 * @return the number of moves in the array afterwards
+	 */
+	private int run(int[] moves, int noOfMoves)
+	{
+		while (noOfQueued > 0)
+		{
+			int pile = worklist[--noOfQueued];
+			queued &= ~(1 << pile);
+
+			int card = state.getTopCard(pile);
+			if (card < 0 || !isSafe(card))
+				continue;
+
+			// Aces go on the first empty Foundation
+			int suit = GameState.suit(card);
+			if (foundations[suit] < 0)
+				foundations[suit] = emptyFoundation();
+
+			int move = GameState.encodeMove(pile, foundations[suit], 1);
+			state.apply(move);
+			moves[noOfMoves++] = move;
+			levels[suit]++;
+
+			// The Card underneath is now on top
+			int under = state.getTopCard(pile);
+			if (under >= 0)
+				pileOfTop[under] = pile;
+			queue(pile);
+			queueUnblocked(card);
+		}
+
+		return noOfMoves;
+	}
+
+	/**
+	 * Adds the piles to the worklist whose top Card may have become safe now
+	 * that the given Card is on a Foundation: the next rank of the same suit
+	 * and of both suits of the opposite colour
+	 *
+	 * @param card the card code of the Card moved up
+	 */
+	private void queueUnblocked(int card)
+	{
+		int rank = GameState.rank(card);
+		if (rank == 13)
+			return;
+
+		for (int suit = 1; suit <= 4; suit++)
+		{
+			int next = GameState.code(rank + 1, suit);
+			if (suit != GameState.suit(card)
+					&& GameState.isRed(next) == GameState.isRed(card))
+				continue;
+
+			int pile = pileOfTop[next];
+			if (pile >= 0 && state.getTopCard(pile) == next)
+				queue(pile);
+		}
+	}
+
+	/**
+	 * Adds a pile to the worklist if it isn't already in it
+	 *
+	 * @param pile the pile to check
+	 */
+	private void queue(int pile)
+	{
+		if ((queued & 1 << pile) == 0)
+		{
+			queued |= 1 << pile;
+			worklist[noOfQueued++] = pile;
+		}
+	}
+
+	/**
+	 * Finds the first empty Foundation
+	 *
+	 * @return the pile of the first empty Foundation
+	 */
+	private int emptyFoundation()
+	{
+		int pile = GameState.FIRST_FOUNDATION;
+		while (state.cardsLeft(pile) > 0)
+			pile++;
+
+		return pile;
+	}
+}
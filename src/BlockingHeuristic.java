@@ -0,0 +1,63 @@
+/**
+ * The default Heuristic for the Solver. Counts the Cards that are not on the
+ * Foundations yet, the Cards in the Cascades that are sitting on top of a lower
+ * Card, the Cards sitting on top of the next Card each Foundation needs and
+ * the full FreeCells, and gives a bonus for empty Cascades.
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class BlockingHeuristic implements Heuristic
+{
+	/**
+	 * Estimates how far the given GameState is from being won
+	 *
+	 * @param state the GameState to estimate
+	 * @return the estimate (0 or more, lower is closer to being won)
+	 */
+	public int evaluate(GameState state)
+	{
+		int estimate = 4 * (52 - state.getFoundationCards());
+
+		// Find how far up each suit is on the Foundations, 4 bits for each
+		// suit (kept in an int so nothing is created for every GameState and
+		// the ParallelSolver threads can share this Heuristic)
+		int foundationRanks = 0;
+		for (int pile = GameState.FIRST_FOUNDATION;
+				pile < GameState.NO_OF_PILES; pile++)
+		{
+			int topCard = state.getTopCard(pile);
+			if (topCard >= 0)
+				foundationRanks |= GameState.rank(topCard) << 4 * GameState
+						.suit(topCard);
+		}
+
+		for (int pile = 0; pile < GameState.NO_OF_CASCADES; pile++)
+		{
+			int size = state.cardsLeft(pile);
+			int lowestRank = 14;
+			for (int index = 0; index < size; index++)
+			{
+				int card = state.getCard(pile, index);
+				int rank = GameState.rank(card);
+
+				// This Card has to be moved before a lower Card can go up
+				if (rank > lowestRank)
+					estimate++;
+				else
+					lowestRank = rank;
+
+				// Count the Cards on top of the next Card for a Foundation
+				int foundationRank = foundationRanks >> 4 * GameState.suit(card)
+						& 15;
+				if (rank == foundationRank + 1)
+					estimate += size - 1 - index;
+			}
+		}
+
+		estimate += 2 * (GameState.NO_OF_FREECELLS - state.getNoOfFreeCells());
+		estimate -= 2 * state.getNoOfOpenCascades();
+
+		return Math.max(estimate, 0);
+	}
+}
@@ -1,10 +1,13 @@
 import java.util.Comparator;
 
 /**
- * A Card class that stores the rank and suit of a Card Object and whether or
- * not the Card is face up. Can construct a Card given two integers (rank, suit)
- * or given a String. Includes methods to print out the Card as a String, to
- * flip the Card, check if the Card is face up, compare Cards by rank then suit
+ * A Card class that stores the rank and suit of a Card Object. There are only
+ * 52 Cards: each one is created once and shared (get them with valueOf or
+ * parse), and they never change. Each Card has an index from 0 to 51 (the
+ * same as its card code in GameState), and everything about the Cards is
+ * worked out once in tables indexed by it, so parsing, printing and the rules
+ * of FreeCell are array lookups that don't create any objects. Includes
+ * methods to print out the Card as a String, compare Cards by rank then suit,
  * check if the Card is an ace, to get the Blackjack value of the card, to check
  * if this Card can be placed on a Cascade when given the top Card of the
  * Cascade in a game of FreeCell and to check if this Card can be placed on a
@@ -16,88 +19,248 @@ import java.util.Comparator;
  */
 public class Card implements Comparable<Card>
 {
-	private int rank; // Ace - 1, 2 - 10, Jack - 11, Queen - 12, King - 13
-	private int suit; // Clubs - 1, Diamonds - 2, Hearts - 3, Spades - 4
-	protected boolean isFaceUp;
+	public static final int NO_OF_CARDS = 52;
+
+	private final int index; // (rank - 1) * 4 + suit - 1
+	private final int rank; // Ace - 1, 2 - 10, Jack - 11, Queen - 12, King - 13
+	private final int suit; // Clubs - 1, Diamonds - 2, Hearts - 3, Spades - 4
 
 	private static final String SUITS = " CDHS";
 	private static final String RANKS = " A23456789TJQK";
 
+	// The rank and suit of each character (0 if it isn't one)
+	private static final byte[] RANK_OF = new byte[128];
+	private static final byte[] SUIT_OF = new byte[128];
+
+	// The tables for each Card by index. A bit in ON_CASCADE or ON_FOUNDATION
+	// is set for every Card this Card can be placed on.
+	private static final Card[] CARDS = new Card[NO_OF_CARDS];
+	private static final String[] NAMES = new String[NO_OF_CARDS];
+	private static final boolean[] RED = new boolean[NO_OF_CARDS];
+	private static final long[] ON_CASCADE = new long[NO_OF_CARDS];
+	private static final long[] ON_FOUNDATION = new long[NO_OF_CARDS];
+
+	static
+	{
+		for (int rank = 1; rank < RANKS.length(); rank++)
+		{
+			RANK_OF[RANKS.charAt(rank)] = (byte) rank;
+			RANK_OF[Character.toLowerCase(RANKS.charAt(rank))] = (byte) rank;
+		}
+		for (int suit = 1; suit < SUITS.length(); suit++)
+		{
+			SUIT_OF[SUITS.charAt(suit)] = (byte) suit;
+			SUIT_OF[Character.toLowerCase(SUITS.charAt(suit))] = (byte) suit;
+		}
+
+		for (int card = 0; card < NO_OF_CARDS; card++)
+		{
+			CARDS[card] = new Card(card);
+			NAMES[card] = "" + RANKS.charAt(card / 4 + 1)
+					+ SUITS.charAt(card % 4 + 1);
+			RED[card] = card % 4 == 1 || card % 4 == 2;
+		}
+
+		for (int card = 0; card < NO_OF_CARDS; card++)
+			for (int other = 0; other < NO_OF_CARDS; other++)
+			{
+				// Opposite colours and the other Card is one rank higher
+				if (other / 4 - card / 4 == 1 && RED[card] != RED[other])
+					ON_CASCADE[card] |= 1L << other;
+
+				// Same suit and this Card is one rank higher
+				if (card - other == 4)
+					ON_FOUNDATION[card] |= 1L << other;
+			}
+	}
+
 	public static final Comparator<Card> SUIT_ORDER = new SuitOrder();
 
 	/**
-	 * Constructs a new Card Object with a given rank and suit
+	 * Constructs the Card with the given index (only used to make the 52
+	 * shared Cards)
 	 * 
-	 * @param rank the given rank as an integer
-	 * @param suit the given suit as an integer
+	 * @param index the index of the Card
 	 */
-	public Card(int rank, int suit)
+	private Card(int index)
 	{
-		this.rank = rank;
-		this.suit = suit;
-		this.isFaceUp = false;
+		this.index = index;
+		this.rank = index / 4 + 1;
+		this.suit = index % 4 + 1;
 	}
 
 	/**
-	 * Constructs a new Card Object using a String in the form of RANKSUIT (ex.
-	 * 2H). If the String is in upper case, the Card is face up; if the String
-	 * is in lower case, the Card is face down.
+	 * Constructs a Card Object with the same rank and suit as the given Card
+	 * for subclasses that add to a Card (ex. GCard)
+	 * 
+	 * @param card the Card to copy
+	 */
+	protected Card(Card card)
+	{
+		this.index = card.index;
+		this.rank = card.rank;
+		this.suit = card.suit;
+	}
+
+	/**
+	 * Gets the Card with the given index
+	 * 
+	 * @param index the index of the Card (0 to 51)
+	 * @return the Card
+	 */
+	public static Card valueOf(int index)
+	{
+		return CARDS[index];
+	}
+
+	/**
+	 * Gets the Card with the given rank and suit
+	 * 
+	 * @param rank the rank as an integer
+	 * @param suit the suit as an integer
+	 * @return the Card
+	 */
+	public static Card valueOf(int rank, int suit)
+	{
+		return CARDS[(rank - 1) * 4 + suit - 1];
+	}
+
+	/**
+	 * Finds the index of the Card with the given rank and suit characters (in
+	 * upper or lower case, ex. 'T' and 'h')
+	 * 
+	 * @param rank the rank character
+	 * @param suit the suit character
+	 * @return the index of the Card, or -1 if the characters aren't a Card
+	 */
+	public static int indexOf(char rank, char suit)
+	{
+		if (rank >= 128 || suit >= 128 || RANK_OF[rank] == 0
+				|| SUIT_OF[suit] == 0)
+			return -1;
+
+		return (RANK_OF[rank] - 1) * 4 + SUIT_OF[suit] - 1;
+	}
+
+	/**
+	 * Gets the Card given as a String in the form of RANKSUIT (ex. 2H or 2h)
 	 * 
 	 * @param card the Card as a String in the form of RANKSUIT
+	 * @return the Card
+	 * @throws IllegalArgumentException if the String isn't a Card
 	 */
-	public Card(String card)
+	public static Card parse(String card)
 	{
-		if (Character.isUpperCase(card.charAt(1)))
-		{
-			this.rank = RANKS.indexOf(card.charAt(0));
-			this.suit = SUITS.indexOf(card.charAt(1));
-			this.isFaceUp = true;
-		}
-		else
-		{
-			card = card.toUpperCase();
-			this.rank = RANKS.indexOf(card.charAt(0));
-			this.suit = SUITS.indexOf(card.charAt(1));
-			this.isFaceUp = false;
-		}
+		int index = -1;
+		if (card.length() == 2)
+			index = indexOf(card.charAt(0), card.charAt(1));
+
+		if (index < 0)
+			throw new IllegalArgumentException("Not a card: " + card);
+
+		return CARDS[index];
+	}
+
+	/**
+	 * Returns the Card with the given index as a String in the form of
+	 * RANKSUIT
+	 * 
+	 * @param index the index of the Card
+	 * @return the Card as a String
+	 */
+	public static String toString(int index)
+	{
+		return NAMES[index];
+	}
+
+	/**
+	 * Checks if the Card with the given index is red (Diamonds or Hearts)
+	 * 
+	 * @param index the index of the Card
+	 * @return true if the Card is red, false if it is black
+	 */
+	public static boolean isRed(int index)
+	{
+		return RED[index];
+	}
+
+	/**
+	 * Checks if a Card can be placed on another Card in a Cascade
+	 * 
+	 * @param index the index of the Card to place
+	 * @param otherIndex the index of the top Card on the Cascade
+	 * @return true if the Cards are opposite colours and the other Card is one
+	 *         rank higher than this Card, false if not
+	 */
+	public static boolean canPlaceOnCascade(int index, int otherIndex)
+	{
+		return (ON_CASCADE[index] >>> otherIndex & 1) != 0;
+	}
+
+	/**
+	 * Checks if a Card can be placed on another Card on a Foundation
+	 * 
+	 * @param index the index of the Card to place
+	 * @param otherIndex the index of the top Card on the Foundation
+	 * @return true if the Cards are the same suit and this Card is one rank
+	 *         higher than the other Card, false if not
+	 */
+	public static boolean canPlaceOnFoundation(int index, int otherIndex)
+	{
+		return (ON_FOUNDATION[index] >>> otherIndex & 1) != 0;
 	}
 
 	/**
-	 * Returns the Card as a String in the format of RANKSUIT. If the String is
-	 * in upper case, the Card is face up; if the String is in lower case, the
-	 * Card is face down.
+	 * Returns the Card as a String in the format of RANKSUIT
 	 * 
 	 * @return the Card as a String
 	 */
 	public String toString()
 	{
-		// Create the String (will be in upper case)
-		String card = "" + RANKS.charAt(rank) + SUITS.charAt(suit);
+		return NAMES[index];
+	}
 
-		// Face up card, return upper case
-		if (isFaceUp)
-			return String.format("%s", card);
+	/**
+	 * Gets the index of the Card (0 to 51, the same as its card code in
+	 * GameState)
+	 * 
+	 * @return the index of the Card
+	 */
+	public int getIndex()
+	{
+		return index;
+	}
 
-		// Face down card, return lower case
-		return String.format("%s", card.toLowerCase());
+	/**
+	 * Gets the rank of the Card (Ace - 1, 2 - 10, Jack - 11, Queen - 12, King
+	 * - 13)
+	 * 
+	 * @return the rank of the Card
+	 */
+	public int getRank()
+	{
+		return rank;
 	}
 
 	/**
-	 * Flips the card
+	 * Gets the suit of the Card (Clubs - 1, Diamonds - 2, Hearts - 3, Spades -
+	 * 4)
+	 * 
+	 * @return the suit of the Card
 	 */
-	public void flip()
+	public int getSuit()
 	{
-		this.isFaceUp = !isFaceUp;
+		return suit;
 	}
 
 	/**
-	 * Checks if the Card is face up
+	 * Checks if the Card is red
 	 * 
-	 * @return true if the Card is face up, false if the Card is face down
+	 * @return true if the Card is a Diamond or Heart, false if it is black
 	 */
-	public boolean isFaceUp()
+	public boolean isRed()
 	{
-		return isFaceUp;
+		return RED[index];
 	}
 
 	/**
@@ -114,12 +277,8 @@ public class Card implements Comparable<Card>
 	 */
 	public int compareTo(Card other)
 	{
-		// Compare by rank if the ranks are not the same
-		if (this.rank != other.rank)
-			return this.rank - other.rank;
-
-		// Compare by suit when the ranks are equal
-		return this.suit - other.suit;
+		// The index is in order of rank then suit
+		return this.index - other.index;
 	}
 
 	/**
@@ -160,12 +319,7 @@ public class Card implements Comparable<Card>
 	 */
 	public boolean canPlaceOnCascade(Card otherCard)
 	{
-
-		if (otherCard.rank - this.rank == 1
-				&& (this.suit + otherCard.suit != 5 && this.suit != otherCard.suit))
-			return true;
-		else
-			return false;
+		return (ON_CASCADE[index] >>> otherCard.index & 1) != 0;
 	}
 
 	/**
@@ -179,10 +333,7 @@ public class Card implements Comparable<Card>
 	 */
 	public boolean canPlaceOnFoundation(Card otherCard)
 	{
-		if (this.rank - otherCard.rank == 1 && this.suit == otherCard.suit)
-			return true;
-
-		return false;
+		return (ON_FOUNDATION[index] >>> otherCard.index & 1) != 0;
 	}
 
 	/**
@@ -0,0 +1,390 @@
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Keeps every Card face and the Card back in one image (a sprite atlas) so
+ * that only one image is kept in memory instead of 53. The faces are laid
+ * out with one column for each rank and one row for each suit, with the
+ * back in the last row, and each Card is drawn by copying its part of the
+ * atlas.
+ *
+ * The atlas is kept in an image that is compatible with the screen, and is
+ * also copied into a VolatileImage so it can be drawn by the graphics card.
+ * The contents of a VolatileImage can be lost at any time (ex. when the
+ * screen mode changes), so it is checked before every draw and copied again
+ * from the compatible image when needed.
+ *
+ * The images are found on the class path (or in the images folder) and are
+ * decoded in parallel, usually on a background thread while the window is
+ * being shown (see loadInBackground).
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class CardAtlas
+{
+	public static final int WIDTH = 71;
+	public static final int HEIGHT = 96;
+	public static final int BACK = 52;
+
+	private static final int COLUMNS = 13;
+	private static final int ROWS = 5;
+
+	private static volatile BufferedImage atlas;
+	private static VolatileImage accelerated;
+	private static long loadTime;
+
+	/**
+	 * Starts loading the Card images on a background thread so that the
+	 * window can be shown straight away. Until the images are loaded, Cards
+	 * are drawn as plain outlines with their names
+	 *
+	 * @param component the component to repaint once the images are loaded
+	 */
+	public static void loadInBackground(final Component component)
+	{
+		Thread loader = new Thread(new Runnable()
+		{
+			public void run()
+			{
+				load();
+				component.repaint();
+			}
+		}, "CardAtlas loader");
+		loader.setDaemon(true);
+		loader.start();
+	}
+
+	/**
+	 * Loads the Card images into the atlas if they haven't been loaded yet,
+	 * decoding the images in parallel
+	 */
+	public static synchronized void load()
+	{
+		if (atlas != null)
+			return;
+
+		long startTime = System.nanoTime();
+		ExecutorService pool = Executors.newFixedThreadPool(Runtime
+				.getRuntime().availableProcessors());
+		try
+		{
+			ArrayList<Future<BufferedImage>> images =
+					new ArrayList<Future<BufferedImage>>();
+			for (int card = 0; card < 52; card++)
+			{
+				Card next = Card.valueOf(card);
+				images.add(pool.submit(new Decoder("" + " cdhs".charAt(next
+						.getSuit()) + next.getRank() + ".png")));
+			}
+			images.add(pool.submit(new Decoder("blueback.png")));
+
+			// Put each image in its place in the atlas as it is decoded
+			BufferedImage image = createImage();
+			Graphics g = image.getGraphics();
+			for (int card = 0; card <= BACK; card++)
+				drawCell(g, images.get(card).get(), card);
+			g.dispose();
+
+			loadTime = System.nanoTime() - startTime;
+			atlas = image;
+		}
+		catch (InterruptedException exp)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException exp)
+		{
+			System.out.println("Error loading the card images: "
+					+ exp.getCause().getMessage());
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Checks if the Card images have been loaded
+	 *
+	 * @return true if the atlas is ready to draw, false if not
+	 */
+	public static boolean isLoaded()
+	{
+		return atlas != null;
+	}
+
+	/**
+	 * Gets how long the Card images took to load
+	 *
+	 * @return the number of nanoseconds, or 0 if they aren't loaded
+	 */
+	public static long getLoadTime()
+	{
+		return loadTime;
+	}
+
+	/**
+	 * Finds an image in the images folder, first as a resource on the class
+	 * path (ex. in the jar) and then as a file in the working directory
+	 *
+	 * @param fileName the name of the image file
+	 * @return the URL of the image, or null if it can't be found
+	 */
+	public static URL getImageURL(String fileName)
+	{
+		URL url = CardAtlas.class.getResource("/images/" + fileName);
+		if (url != null)
+			return url;
+
+		File file = new File("images", fileName);
+		try
+		{
+			if (file.exists())
+				return file.toURI().toURL();
+		}
+		catch (MalformedURLException exp)
+		{
+		}
+
+		return null;
+	}
+
+	/**
+	 * Draws a Card from the atlas
+	 *
+	 * @param g the Graphics context to draw in
+	 * @param card the card code of the Card, or BACK for the back of a Card
+	 * @param x the x position of the top left corner
+	 * @param y the y position of the top left corner
+	 */
+	public static void draw(Graphics g, int card, int x, int y)
+	{
+		// Draw an outline of the Card until the images are loaded
+		if (atlas == null)
+		{
+			drawOutline(g, card, x, y);
+			return;
+		}
+
+		Image source = atlas;
+		if (g instanceof Graphics2D)
+		{
+			VolatileImage image = validate(((Graphics2D) g)
+					.getDeviceConfiguration());
+			if (image != null)
+				source = image;
+		}
+
+		int sourceX = cellX(card);
+		int sourceY = cellY(card);
+		g.drawImage(source, x, y, x + WIDTH, y + HEIGHT, sourceX, sourceY,
+				sourceX + WIDTH, sourceY + HEIGHT, null);
+
+		// If the VolatileImage was lost while drawing, draw the Card again
+		// from the atlas (the VolatileImage is restored on the next draw)
+		if (source != atlas && accelerated.contentsLost())
+			g.drawImage(atlas, x, y, x + WIDTH, y + HEIGHT, sourceX, sourceY,
+					sourceX + WIDTH, sourceY + HEIGHT, null);
+	}
+
+	/**
+	 * Draws a plain outline of a Card with its name on the front
+	 *
+	 * @param g the Graphics context to draw in
+	 * @param card the card code of the Card, or BACK for the back of a Card
+	 * @param x the x position of the top left corner
+	 * @param y the y position of the top left corner
+	 */
+	private static void drawOutline(Graphics g, int card, int x, int y)
+	{
+		if (card == BACK)
+			g.setColor(Color.BLUE);
+		else
+			g.setColor(Color.WHITE);
+		g.fillRect(x, y, WIDTH - 1, HEIGHT - 1);
+		g.setColor(Color.BLACK);
+		g.drawRect(x, y, WIDTH - 1, HEIGHT - 1);
+
+		if (card != BACK)
+		{
+			if (Card.isRed(card))
+				g.setColor(Color.RED);
+			g.drawString(Card.toString(card), x + 5, y + 15);
+		}
+	}
+
+	/**
+	 * Makes sure the VolatileImage copy of the atlas can be drawn with the
+	 * given GraphicsConfiguration, creating it or copying the atlas into it
+	 * again if it was lost
+	 *
+	 * @param config the GraphicsConfiguration being drawn to
+	 * @return the VolatileImage, or null if the atlas should be drawn instead
+	 */
+	private static VolatileImage validate(GraphicsConfiguration config)
+	{
+		if (config == null || GraphicsEnvironment.isHeadless())
+			return null;
+
+		if (accelerated == null)
+			return restore(config);
+
+		switch (accelerated.validate(config))
+		{
+			case VolatileImage.IMAGE_INCOMPATIBLE:
+				accelerated.flush();
+				return restore(config);
+			case VolatileImage.IMAGE_RESTORED:
+				copyAtlas();
+				break;
+		}
+
+		return accelerated;
+	}
+
+	/**
+	 * Creates a new VolatileImage for the given GraphicsConfiguration and
+	 * copies the atlas into it
+	 *
+	 * @param config the GraphicsConfiguration being drawn to
+	 * @return the VolatileImage, or null if it couldn't be created
+	 */
+	private static VolatileImage restore(GraphicsConfiguration config)
+	{
+		accelerated = config.createCompatibleVolatileImage(atlas.getWidth(),
+				atlas.getHeight(), Transparency.BITMASK);
+		if (accelerated == null)
+			return null;
+
+		accelerated.validate(config);
+		copyAtlas();
+		return accelerated;
+	}
+
+	/**
+	 * Copies the atlas into the VolatileImage
+	 */
+	private static void copyAtlas()
+	{
+		// Replace the old pixels, including the clear corners of the Cards
+		Graphics2D g = accelerated.createGraphics();
+		g.setComposite(AlphaComposite.Src);
+		g.drawImage(atlas, 0, 0, null);
+		g.dispose();
+	}
+
+	/**
+	 * Creates an empty atlas image, compatible with the screen if there is
+	 * one so that drawing it doesn't need to convert any pixels. The corners
+	 * of the Card faces are clear, so each pixel is either clear or opaque
+	 *
+	 * @return the new image
+	 */
+	private static BufferedImage createImage()
+	{
+		int width = COLUMNS * WIDTH;
+		int height = ROWS * HEIGHT;
+		if (GraphicsEnvironment.isHeadless())
+			return new BufferedImage(width, height,
+					BufferedImage.TYPE_INT_ARGB);
+
+		return GraphicsEnvironment.getLocalGraphicsEnvironment()
+				.getDefaultScreenDevice().getDefaultConfiguration()
+				.createCompatibleImage(width, height, Transparency.BITMASK);
+	}
+
+	/**
+	 * Draws one Card image into its place in the atlas
+	 *
+	 * @param g the Graphics context of the atlas
+	 * @param image the Card image
+	 * @param card the card code of the Card, or BACK
+	 */
+	private static void drawCell(Graphics g, Image image, int card)
+	{
+		g.drawImage(image, cellX(card), cellY(card), null);
+	}
+
+	/**
+	 * Decodes one Card image on a thread of the loading pool
+	 */
+	private static class Decoder implements Callable<BufferedImage>
+	{
+		private String fileName;
+
+		/**
+		 * Creates a new Decoder
+		 *
+		 * @param fileName the name of the image file in the images folder
+		 */
+		private Decoder(String fileName)
+		{
+			this.fileName = fileName;
+		}
+
+		/**
+		 * Reads and decodes the image
+		 *
+		 * @return the decoded image
+		 * @throws IOException if the image can't be found or read
+		 */
+		public BufferedImage call() throws IOException
+		{
+			URL url = getImageURL(fileName);
+			if (url == null)
+				throw new IOException("Can't find " + fileName);
+
+			return ImageIO.read(url);
+		}
+	}
+
+	/**
+	 * Finds the x position of a Card in the atlas (one column for each rank)
+	 *
+	 * @param card the card code of the Card, or BACK
+	 * @return the x position of the left side of the Card
+	 */
+	private static int cellX(int card)
+	{
+		if (card == BACK)
+			return 0;
+
+		return card / 4 * WIDTH;
+	}
+
+	/**
+	 * Finds the y position of a Card in the atlas (one row for each suit)
+	 *
+	 * @param card the card code of the Card, or BACK
+	 * @return the y position of the top of the Card
+	 */
+	private static int cellY(int card)
+	{
+		if (card == BACK)
+			return (ROWS - 1) * HEIGHT;
+
+		return card % 4 * HEIGHT;
+	}
+}
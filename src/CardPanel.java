@@ -2,8 +2,17 @@ import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
 
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
@@ -22,7 +31,9 @@ public class CardPanel extends JPanel implements MouseListener,
 	public static final int WIDTH = 800;
 	public static final int HEIGHT = 600;
 	private final Color TABLE_COLOUR = new Color(140, 225, 140);
-	private final int ANIMATION_FRAMES = 6;
+	private final int MOVE_TIME = 180;
+	private final int AUTO_MOVE_DELAY = 60;
+	private final int DEAL_DELAY = 20;
 
 	// Constants for layout of card area
 	private final int NO_OF_CASCADES = 8;
@@ -37,25 +48,50 @@ public class CardPanel extends JPanel implements MouseListener,
 	private final int FOUNDATION_X = 425;
 	private final int FOUNDATION_Y = 30;
 
+	// Every game played is added to this file (see GameRecord)
+	public static final String GAMES_FILE = "games.dat";
+	public static final String STATS_FILE = "stats.dat";
+	public static final String JOURNAL_FILE = "journal.dat";
+
 	// Variables for the FreeCell Game
 	private FreeCellMain parentFrame;
-	private LinkedList<Move> moves;
+	private MoveHistory moves;
 
 	private GDeck myDeck;
+	private long dealNumber;
+	private GameState game;
 	private ArrayList<GHand> allHands;
 	private Movable selectedItem;
 	private GHand sourceHand;
 	private Point lastPoint;
+	private Point movePoint;
+	private HandGrid handGrid;
 	private GCard movingCard;
-	private boolean animate = false;
+	private boolean animate = true;
+	private Animator animator;
 	private Statistics stats;
+	private boolean canSaveStats = true;
 	private boolean autoCompleteOn = true;
+	private AutoPlay autoPlay;
+	private int[] autoMoves;
+	private boolean checkAllPiles = true;
 	private boolean isPlayingGame = false;
+	private boolean painted = false;
+
+	// Keeps track of every game played in the journal
+	private GameJournal journal;
+	private long gameStartTime;
+	private int noOfUndos;
+	private ExecutorService solverThread;
+	private Solver solver;
+	private Future<Solution> solution;
+	private BufferedImage tableImage;
+	private boolean imagesPainted = false;
 
 	/**
 	 * Constructs a CardPanel by setting up the Panel and the Deck and all of
 	 * required Hands to keep track of the free cells, foundations and cascades.
-	 * Also sets up listeners for mouse events and a move list
+	 * Also sets up listeners for mouse events and a move history
 	 * 
 	 * @param parentFrame the main Frame that holds this panel
 	 */
@@ -101,11 +137,46 @@ public class CardPanel extends JPanel implements MouseListener,
 			xFoundation += TOP_SPACING;
 		}
 
+		// Connect every Hand to its pile in the game (the rules of the game are
+		// kept in the GameState)
+		game = new GameState();
+		for (int pile = 0; pile < allHands.size(); pile++)
+			allHands.get(pile).setGame(game, pile);
+
+		// Set up the grid to find the Hand at a point on the table
+		handGrid = new HandGrid(allHands, WIDTH, HEIGHT);
+		movePoint = new Point();
+
 		movingCard = null;
-		moves = new LinkedList<Move>();
+		animator = new Animator(this);
+		moves = new MoveHistory();
+		autoPlay = new AutoPlay();
+		autoMoves = new int[52];
 
 		// Read in the statistics
-		stats = Statistics.readFromFile("stats.dat");
+		readStats();
+
+		// Open the journal of games played, and set up a thread to solve each
+		// deal while it is played
+		try
+		{
+			journal = GameJournal.open(Paths.get(JOURNAL_FILE));
+		}
+		catch (IOException exp)
+		{
+			System.out.println("Error opening the game journal: "
+					+ exp.getMessage());
+		}
+		solver = new Solver();
+		solverThread = Executors.newSingleThreadExecutor(new ThreadFactory()
+		{
+			public Thread newThread(Runnable task)
+			{
+				Thread thread = new Thread(task, "Solver");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
 
 		// Set default settings (at beginning, user is not currently playing
 		// game and auto complete is on)
@@ -114,27 +185,57 @@ public class CardPanel extends JPanel implements MouseListener,
 	}
 
 	/**
-	 * Starts up a new game by clearing all of the Hands, shuffling the Deck and
-	 * dealing new Cards to the Cascades. Also resets the move list
+	 * Starts up a new game with a random deal number
 	 */
 	public void newGame()
 	{
+		newGame(ThreadLocalRandom.current().nextLong(
+				DealGenerator.MIN_DEAL_NUMBER,
+				DealGenerator.MAX_DEAL_NUMBER + 1));
+	}
+
+	/**
+	 * Starts up a new game by clearing all of the Hands, setting the Deck to
+	 * the given numbered deal and dealing new Cards to the Cascades. Also
+	 * resets the move history
+	 * 
+	 * @param dealNumber the Microsoft FreeCell game number to deal
+	 */
+	public void newGame(long dealNumber)
+	{
+		animator.finish();
+
+		// Keep a record of the game being given up
+		if (isPlayingGame)
+			recordGame(GameJournal.GAVE_UP);
+
 		// Clear out all of the Hands
 		for (Hand next : allHands)
 			next.clear();
 
-		myDeck.shuffle();
+		GameEvents.DealEvent event = new GameEvents.DealEvent();
+		event.begin();
+		this.dealNumber = dealNumber;
+		myDeck.setDeal(dealNumber);
+		parentFrame.setTitle("FreeCell Game #" + dealNumber);
 
 		// Deal the Cards to the Cascades (first 8 Hands)
+		int[] dealtCards = new int[myDeck.cardsLeft()];
 		int cascadeIndex = 0;
 		while (myDeck.cardsLeft() > 0)
 		{
 			GCard dealtCard = myDeck.dealCard();
+			dealtCards[dealtCards.length - myDeck.cardsLeft() - 1] = dealtCard
+					.getIndex();
 			Point pos = new Point(dealtCard.getPosition());
 			allHands.get(cascadeIndex).addCard(dealtCard);
 			Point finalPos = new Point(dealtCard.getPosition());
 			if (animate)
-				moveACard(dealtCard, pos, finalPos);
+			{
+				int dealt = dealtCards.length - myDeck.cardsLeft() - 1;
+				animator.animate(dealtCard, pos, finalPos, dealt * DEAL_DELAY,
+						MOVE_TIME);
+			}
 			if (!dealtCard.isFaceUp())
 				dealtCard.flip();
 			cascadeIndex++;
@@ -143,20 +244,35 @@ public class CardPanel extends JPanel implements MouseListener,
 
 		}
 
+		// Deal the same Cards in the game
+		game.deal(dealtCards);
+		event.finish(dealNumber, dealtCards.length);
+
+		// Solve the deal in the background for the journal
+		final GameState start = new GameState(game);
+		if (solution != null)
+			solution.cancel(false);
+		solution = solverThread.submit(new Callable<Solution>()
+		{
+			public Solution call()
+			{
+				return solver.solve(start);
+			}
+		});
+		gameStartTime = System.currentTimeMillis();
+		noOfUndos = 0;
+
 		moves.clear();
-		parentFrame.setUndoOption(false);
+		checkAllPiles = true;
+		updateMoveOptions();
 
 		// Add to the number of games
 		stats.increaseTotalGames();
 
-		// Reset the number of empty freecells and cascades as well as setting
-		// the in game status to true
-		Cascade.reset();
-		FreeCell.reset();
-
 		// If user was previously in game, reset win streak
 		if (isPlayingGame)
 			stats.resetCurrentWinStreak();
+		saveStats();
 		
 		// The user is now in game
 		isPlayingGame = true;
@@ -171,12 +287,223 @@ public class CardPanel extends JPanel implements MouseListener,
 	{
 		if (canUndo())
 		{
-			Move lastMove = moves.removeLast();
-			lastMove.undo();
+			animator.finish();
+			noOfUndos++;
+			int move = moves.undo();
+			moveCards(GameState.moveTo(move), GameState.moveFrom(move),
+					GameState.moveCount(move));
+			game.undo(move);
+			checkAllPiles = true;
+			updateMoveOptions();
 			repaint();
 		}
 	}
 
+	/**
+	 * Plays the last move undone again
+	 */
+	public void redo()
+	{
+		if (canRedo())
+		{
+			animator.finish();
+			int move = moves.redo();
+			moveCards(GameState.moveFrom(move), GameState.moveTo(move),
+					GameState.moveCount(move));
+			game.apply(move);
+			checkAllPiles = true;
+			updateMoveOptions();
+			repaint();
+
+			// Redoing the last moves of a game can win it too
+			checkForWin();
+		}
+	}
+
+	/**
+	 * Moves the given number of Cards from the top of one Hand to another
+	 * keeping them in the same order
+	 * 
+	 * @param from the index of the Hand to take the Cards from
+	 * @param to the index of the Hand to put the Cards on
+	 * @param count the number of Cards to move
+	 */
+	private void moveCards(int from, int to, int count)
+	{
+		GHand fromHand = allHands.get(from);
+		GHand toHand = allHands.get(to);
+		int first = fromHand.cardsLeft() - count;
+		for (int card = 0; card < count; card++)
+			toHand.addCard(fromHand.removeCard(first));
+	}
+
+	/**
+	 * Adds a move that has just been played to the move history and the game
+	 * 
+	 * @param from the Hand the Cards came from
+	 * @param to the Hand the Cards were placed on
+	 * @param count the number of Cards moved
+	 * @return the packed move
+	 */
+	private int addMove(GHand from, GHand to, int count)
+	{
+		int move = GameState.encodeMove(from.getPile(), to.getPile(), count);
+		moves.add(move);
+		game.apply(move);
+		updateMoveOptions();
+		return move;
+	}
+
+	/**
+	 * Turns the undo and redo menu options on or off depending on the move
+	 * history
+	 */
+	private void updateMoveOptions()
+	{
+		parentFrame.setUndoOption(canUndo());
+		parentFrame.setRedoOption(canRedo());
+	}
+
+	/**
+	 * Gets a GameRecord of the current game with its deal number and the
+	 * moves played so far
+	 * 
+	 * @return the GameRecord of the current game
+	 */
+	public GameRecord getGameRecord()
+	{
+		return new GameRecord(dealNumber, moves);
+	}
+
+	/**
+	 * Adds a GameRecord of the current game to the end of the GAMES_FILE,
+	 * adds the game to the journal and to the analytics in the Statistics
+	 * 
+	 * @param outcome how the game ended (GameJournal.WON, GAVE_UP or QUIT)
+	 */
+	public void recordGame(int outcome)
+	{
+		stats.addFinishedGame(outcome == GameJournal.WON,
+				System.currentTimeMillis() - gameStartTime, moves.size(),
+				noOfUndos);
+
+		// A game with too many moves for a GameRecord is left out
+		try
+		{
+			getGameRecord().appendTo(Paths.get(GAMES_FILE));
+		}
+		catch (IOException | IllegalArgumentException exp)
+		{
+			System.out.println("Error recording the game: "
+					+ exp.getMessage());
+		}
+
+		try
+		{
+			if (journal != null)
+			{
+				journal.add(dealNumber, gameStartTime,
+						System.currentTimeMillis(), moves.size(), noOfUndos,
+						outcome, solutionLength());
+				journal.flush();
+			}
+		}
+		catch (IOException exp)
+		{
+			System.out.println("Error adding the game to " + JOURNAL_FILE
+					+ ": " + exp.getMessage());
+		}
+	}
+
+	/**
+	 * Finds the length of the Solver's solution of the current deal if it
+	 * has been found (the game isn't held up waiting for the Solver)
+	 * 
+	 * @return the number of moves in the solution, or
+	 *         GameJournal.UNKNOWN_LENGTH if the deal hasn't been solved
+	 */
+	private int solutionLength()
+	{
+		if (solution == null || !solution.isDone() || solution.isCancelled())
+			return GameJournal.UNKNOWN_LENGTH;
+
+		try
+		{
+			if (solution.get().isSolved())
+				return solution.get().getLength();
+		}
+		catch (InterruptedException | ExecutionException exp)
+		{
+		}
+
+		return GameJournal.UNKNOWN_LENGTH;
+	}
+
+	/**
+	 * Gets the deal number of the current game
+	 * 
+	 * @return the Microsoft FreeCell game number of the current game
+	 */
+	public long getDealNumber()
+	{
+		return dealNumber;
+	}
+
+	/**
+	 * Reads the Statistics from the STATS_FILE. If the file can't be read it
+	 * is moved aside (see Statistics.moveAside) and new Statistics are
+	 * started, or if it can't be moved the Statistics are not saved so the
+	 * file is never written over. Either way the user is told
+	 */
+	private void readStats()
+	{
+		try
+		{
+			stats = Statistics.readFromFile(STATS_FILE);
+			return;
+		}
+		catch (IOException exp)
+		{
+			stats = new Statistics();
+			String message = "Your statistics in " + STATS_FILE
+					+ " can't be read (" + exp.getMessage() + ").";
+			try
+			{
+				message += "\nThey have been kept in "
+						+ Statistics.moveAside(STATS_FILE)
+						+ " and new statistics have been started.";
+			}
+			catch (IOException moveExp)
+			{
+				canSaveStats = false;
+				message += "\nThe file can't be moved, so statistics will"
+						+ " not be saved until the game is restarted.";
+			}
+			System.err.println(message);
+			JOptionPane.showMessageDialog(parentFrame, message,
+					"Statistics", JOptionPane.WARNING_MESSAGE);
+		}
+	}
+
+	/**
+	 * Writes the Statistics to the STATS_FILE (after every game so they
+	 * aren't lost if the game doesn't exit normally)
+	 */
+	public void saveStats()
+	{
+		if (!canSaveStats)
+			return;
+
+		try
+		{
+			stats.writeToFile(STATS_FILE);
+		}
+		catch (IOException exp)
+		{
+			System.out.println("Error writing to the file");
+		}
+	}
+
 	/**
 	 * Gets the current Statistics for this FreeCell game
 	 * 
@@ -196,28 +523,49 @@ public class CardPanel extends JPanel implements MouseListener,
 	public void setAutoComplete(boolean autoCompleteSetting)
 	{
 		autoCompleteOn = autoCompleteSetting;
+		checkAllPiles = true;
 	}
 
 	/**
-	 * Checks if there are any moves in the moves list so that we can see if it
-	 * is ok to undo a move
+	 * Checks if there are any moves in the move history so that we can see if
+	 * it is ok to undo a move
 	 * 
 	 * @return true if we can undo, false if not
 	 */
 	public boolean canUndo()
 	{
-		return !moves.isEmpty();
+		return moves.canUndo();
+	}
+
+	/**
+	 * Checks if there are any undone moves in the move history so that we can
+	 * see if it is ok to redo a move
+	 * 
+	 * @return true if we can redo, false if not
+	 */
+	public boolean canRedo()
+	{
+		return moves.canRedo();
 	}
 
 	/**
-	 * Draws the information in this CardPanel. Draws the Deck, all of the
-	 * hands, the moving Card in an animation and the selected Card or GHand
+	 * Draws the information in this CardPanel. Draws the table (kept in an
+	 * image), the Deck, all of the hands, the moving Card in an animation and
+	 * the selected Card or GHand. Only the Cards that overlap the clip of the
+	 * Graphics (the area being repainted) are drawn
 	 * 
 	 * @param g the Graphics context to do the drawing
 	 */
 	public void paintComponent(Graphics g)
 	{
-		super.paintComponent(g);
+		GameEvents.PaintEvent event = new GameEvents.PaintEvent();
+		event.begin();
+
+		// Copy the table (background and outlines) instead of drawing it
+		if (tableImage == null || tableImage.getWidth() != getWidth()
+				|| tableImage.getHeight() != getHeight())
+			tableImage = createTableImage();
+		g.drawImage(tableImage, 0, 0, null);
 
 		// Draw the deck if there are cards left
 		if (myDeck.cardsLeft() > 0)
@@ -234,81 +582,111 @@ public class CardPanel extends JPanel implements MouseListener,
 		// Draw selected GHand or Card on top
 		if (selectedItem != null)
 			selectedItem.draw(g);
+
+		// Keep track of how long the game takes to start up
+		if (!painted)
+		{
+			painted = true;
+			parentFrame.recordStartTime("First frame painted");
+		}
+		if (!imagesPainted && CardAtlas.isLoaded())
+		{
+			imagesPainted = true;
+			parentFrame.recordStartTime("Card images painted");
+		}
+		event.finish(g);
+	}
+
+	/**
+	 * Draws the parts of the table that don't change during a game (the
+	 * background and the outlines of the Hands) into an image so they don't
+	 * need to be drawn again for every frame
+	 * 
+	 * @return the image of the table
+	 */
+	private BufferedImage createTableImage()
+	{
+		int width = Math.max(getWidth(), 1);
+		int height = Math.max(getHeight(), 1);
+		GraphicsConfiguration config = getGraphicsConfiguration();
+		BufferedImage image;
+		if (config != null)
+			image = config.createCompatibleImage(width, height);
+		else
+			image = new BufferedImage(width, height,
+					BufferedImage.TYPE_INT_RGB);
+
+		Graphics g = image.getGraphics();
+		g.setColor(getBackground());
+		g.fillRect(0, 0, width, height);
+		for (GHand next : allHands)
+			next.drawOutline(g);
+		g.dispose();
+
+		return image;
 	}
 
 	/**
-	 * Auto moves any Cards up to the Foundations when possible
+	 * Sets the background colour of the table
+	 * 
+	 * @param colour the new background colour
 	 */
-	private void autoComplete()
+	public void setBackground(Color colour)
 	{
-		// Keeps track of whether or not a Card has been moved during the auto
-		// complete
-		boolean cardMoved = true;
+		super.setBackground(colour);
 
-		while (cardMoved)
+		// Draw the table again with the new colour
+		tableImage = null;
+		repaint();
+	}
+
+	/**
+	 * Auto moves any Cards that are safe to move up to the Foundations (see
+	 * AutoPlay). The moves are made in the game by the AutoPlay, then the
+	 * Cards are moved to match and added to the move history
+	 * 
+	 * @param lastMove the packed move the user just made, or -1 if the user
+	 *            didn't move any Cards
+	 */
+	private void autoComplete(int lastMove)
+	{
+		GameEvents.AutoCompleteEvent event =
+				new GameEvents.AutoCompleteEvent();
+		event.begin();
+
+		// Only the piles changed by the last move need to be checked, unless
+		// Cards may have been left that were safe to move up (ex. after an
+		// undo or if auto complete was off)
+		int noOfAutoMoves;
+		boolean allPiles = checkAllPiles || lastMove < 0;
+		if (allPiles)
+			noOfAutoMoves = autoPlay.playAll(game, autoMoves, 0);
+		else
+			noOfAutoMoves = autoPlay.play(game, lastMove, autoMoves, 0);
+		checkAllPiles = false;
+
+		for (int next = 0; next < noOfAutoMoves; next++)
 		{
-			cardMoved = false;
+			GHand hand = allHands.get(GameState.moveFrom(autoMoves[next]));
+			GHand foundation = allHands.get(GameState.moveTo(autoMoves[next]));
+			GCard topCard = hand.getTopCard();
 
-			// Go through all the Cascades and FreeCells
-			for (GHand hand : allHands.subList(0, NO_OF_CASCADES
-					+ NO_OF_FREECELLS))
-			{
-				// Check every Foundation
-				for (GHand foundation : allHands.subList(NO_OF_CASCADES
-						+ NO_OF_FREECELLS, allHands.size()))
-				{
-					// Check if the top Card can be placed on the foundation (if
-					// applicable)
-					if (hand.cardsLeft() != 0)
-					{
-						GCard topCard = hand.getTopCard();
-
-						if (topCard.canPlaceOn(foundation))
-						{
-							// If the Card can be placed on the Foundation,
-							// check if there are any Cards in the Cascades or
-							// FreeCells that can be placed on the current Hand
-							boolean move = true;
-
-							// Go through all the Cascades and FreeCells
-							for (GHand handCheck : allHands.subList(0,
-									NO_OF_CASCADES + NO_OF_FREECELLS))
-							{
-								// If the top Card of the Hand that is being
-								// checked can be placed on top of the current
-								// Hand, do not move the Card in the current
-								// Hand to the Foundation
-								// Also move any 2s by default
-								if (handCheck.cardsLeft() != 0)
-								{
-									if (handCheck.canPlaceOnCard(topCard)
-											&& topCard.getValue() != 2)
-										move = false;
-								}
-							}
-
-							// Move the Card if possible
-							if (move)
-							{
-								cardMoved = true;
-
-								Point startPos = topCard.getPosition();
-								topCard.placeOn(foundation);
-
-								Point endPos = topCard.getPosition();
-								hand.removeTopCard();
-
-								// Add the move to the list
-								moves.add(new Move(hand, foundation, topCard));
-
-								// Show the animation for the moving Card
-								moveACard(topCard, startPos, endPos);
-							}
-						}
-					}
-				}
-			}
+			Point startPos = topCard.getPosition();
+			topCard.placeOn(foundation);
+
+			Point endPos = topCard.getPosition();
+			hand.removeTopCard();
+
+			// The move is already in the game, so only add it to the history
+			moves.add(autoMoves[next]);
+
+			// Show the animation for the moving Card (each Card starts a
+			// little after the one before it)
+			animator.animate(topCard, startPos, endPos, next * AUTO_MOVE_DELAY,
+					MOVE_TIME);
 		}
+		updateMoveOptions();
+		event.finish(noOfAutoMoves, allPiles);
 	}
 
 	/**
@@ -329,55 +707,37 @@ public class CardPanel extends JPanel implements MouseListener,
 	}
 
 	/**
-	 * Checks if the user is currently playing a game
-	 * 
-	 * @return true if the user is playing, false if not
-	 */
-	public boolean isPlayingGame()
-	{
-		return isPlayingGame;
-	}
-
-	/**
-	 * Moves a Card during the animation
-	 * 
-	 * @param cardToMove Card that you want to move
-	 * @param fromPos initial position of the Card
-	 * @param toPos final position of the Card
+	 * Checks if the game has been won, and if it has congratulates the user
+	 * and adds the win to the Statistics and the journal. Called after every
+	 * move that can finish a game (a drop or a redo)
 	 */
-	public void moveACard(final GCard cardToMove, Point fromPos, Point toPos)
+	private void checkForWin()
 	{
-		int dx = (toPos.x - fromPos.x) / ANIMATION_FRAMES;
-		int dy = (toPos.y - fromPos.y) / ANIMATION_FRAMES;
+		if (!isPlayingGame || !checkForWinner())
+			return;
 
-		for (int times = 1; times <= ANIMATION_FRAMES; times++)
-		{
-			fromPos.x += dx;
-			fromPos.y += dy;
-			cardToMove.setPosition(fromPos);
+		JOptionPane.showMessageDialog(parentFrame, "Congratulations!!",
+				"You win!", JOptionPane.INFORMATION_MESSAGE);
+		parentFrame.setUndoOption(false);
+		parentFrame.setRedoOption(false);
 
-			// Update the drawing area
-			paintImmediately(0, 0, getWidth(), getHeight());
-			delay(30);
+		// Update the number of wins, win percentage and the win streak
+		stats.addWins();
+		recordGame(GameJournal.WON);
+		saveStats();
 
-		}
-		cardToMove.setPosition(toPos);
+		// The user has won, therefore they are not currently playing
+		isPlayingGame = false;
 	}
 
 	/**
-	 * Delays the given number of milliseconds
+	 * Checks if the user is currently playing a game
 	 * 
-	 * @param milliSec number of milliseconds to delay
+	 * @return true if the user is playing, false if not
 	 */
-	private void delay(int milliSec)
+	public boolean isPlayingGame()
 	{
-		try
-		{
-			Thread.sleep(milliSec);
-		}
-		catch (Exception e)
-		{
-		}
+		return isPlayingGame;
 	}
 
 	/**
@@ -390,24 +750,25 @@ public class CardPanel extends JPanel implements MouseListener,
 		if (selectedItem != null)
 			return;
 
+		// Clicking skips any animation so the Cards are where they belong
+		animator.finish();
+
 		Point selectedPoint = event.getPoint();
 
 		// Pick up one of cards from a Hand (FreeCell or Cascade)
 		// Could also pick up from a Foundation if you want
-		for (GHand nextHand : allHands)
-			if (nextHand.contains(selectedPoint)
-					&& nextHand.canPickUp(selectedPoint))
-			{
-				// Split off a section of the Cascade or pick up a Card
-				selectedItem = nextHand.pickUp(selectedPoint);
-
-				// In case our move is not valid, we want to return the
-				// Card(s) to where they initially came from
-				sourceHand = nextHand;
-				lastPoint = selectedPoint;
-				repaint();
-				return;
-			}
+		GHand nextHand = handGrid.handAt(selectedPoint.x, selectedPoint.y);
+		if (nextHand != null && nextHand.canPickUp(selectedPoint))
+		{
+			// Split off a section of the Cascade or pick up a Card
+			selectedItem = nextHand.pickUp(selectedPoint);
+
+			// In case our move is not valid, we want to return the
+			// Card(s) to where they initially came from
+			sourceHand = nextHand;
+			lastPoint = selectedPoint;
+			repaint(selectedItem.getRectangle());
+		}
 	}
 
 	/**
@@ -419,6 +780,13 @@ public class CardPanel extends JPanel implements MouseListener,
 	{
 		if (selectedItem != null)
 		{
+			GameEvents.MoveEvent moveEvent = new GameEvents.MoveEvent();
+			moveEvent.begin();
+
+			// Only the area the Cards are dropped from and the Hand they end
+			// up in need to be repainted
+			repaint(selectedItem.getRectangle());
+
 			// Check to see if we can add this to another cascade
 			// foundation or free cell
 			for (GHand nextHand : allHands)
@@ -426,42 +794,32 @@ public class CardPanel extends JPanel implements MouseListener,
 						&& selectedItem.canPlaceOn(nextHand))
 				{
 					selectedItem.placeOn(nextHand);
+					repaint(nextHand.getRectangle());
 
 					// Count this move if you didn't place it on the same spot
+					int move = -1;
 					if (nextHand != sourceHand)
 					{
-						moves.addLast(new Move(sourceHand, nextHand,
-								selectedItem));
-						parentFrame.setUndoOption(true);
+						int count = 1;
+						if (selectedItem instanceof Tableau)
+							count = ((Tableau) selectedItem).cardsLeft();
+						move = addMove(sourceHand, nextHand, count);
 					}
 					selectedItem = null;
-					repaint();
+					moveEvent.finish(move);
 
 					// Check these things after a Card is dropped
 					if (autoCompleteOn)
-						autoComplete();
-					if (checkForWinner())
-					{
-						JOptionPane.showMessageDialog(parentFrame,
-								"Congratulations!!", "You win!",
-								JOptionPane.INFORMATION_MESSAGE);
-						parentFrame.setUndoOption(false);
-
-						// Update the number of wins, win percentage and the win
-						// streak
-						stats.addWins();
-
-						// The user has won, therefore they are not currently
-						// playing
-						isPlayingGame = false;
-					}
+						autoComplete(move);
+					checkForWin();
 					return;
 				}
 
 			// Return to original spot if not a valid move
 			selectedItem.placeOn(sourceHand);
+			repaint(sourceHand.getRectangle());
 			selectedItem = null;
-			repaint();
+			moveEvent.finish(-1);
 		}
 	}
 
@@ -480,9 +838,11 @@ public class CardPanel extends JPanel implements MouseListener,
 			// currentPoint to move the Cascade or Card so that the position of
 			// the mouse on the Cascade/Card doesn't matter.
 			// i.e. we can drag the card from any point on the card image
+			// Only repaint where the Cards were and where they are now
+			repaint(selectedItem.getRectangle());
 			selectedItem.move(lastPoint, currentPoint);
 			lastPoint = currentPoint;
-			repaint();
+			repaint(selectedItem.getRectangle());
 		}
 
 	}
@@ -495,14 +855,14 @@ public class CardPanel extends JPanel implements MouseListener,
 	public void mouseMoved(MouseEvent event)
 	{
 		// Set the cursor to the hand if we are on a card that we can pick up
-		Point currentPoint = event.getPoint();
-		for (GHand nextHand : allHands)
-			if (nextHand.contains(currentPoint)
-					&& nextHand.canPickUp(currentPoint))
-			{
-				setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
-				return;
-			}
+		// (the same Point is reused for every mouse move)
+		movePoint.setLocation(event.getX(), event.getY());
+		GHand nextHand = handGrid.handAt(movePoint.x, movePoint.y);
+		if (nextHand != null && nextHand.canPickUp(movePoint))
+		{
+			setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+			return;
+		}
 
 		// Otherwise we just use the default cursor
 		setCursor(Cursor.getDefaultCursor());
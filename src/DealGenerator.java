@@ -0,0 +1,92 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Generates the order Cards are dealt in for a game of FreeCell as card codes
+ * (see GameState). Numbered deals are the same as the classic Microsoft
+ * FreeCell game numbers (1 to 2^31), made with the same linear congruential
+ * generator, so a game can be shared or replayed by its number. Unnumbered
+ * deals are shuffled with a given RandomGenerator (ex. the RandomGenerator of
+ * each thread from ThreadLocalRandom.current()).
+ *
+ * Neither kind of deal creates any objects, so millions of deals can be made
+ * quickly. A DealGenerator reuses its own array of Cards, so each thread
+ * should use its own DealGenerator.
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class DealGenerator
+{
+	public static final long MIN_DEAL_NUMBER = 1;
+	public static final long MAX_DEAL_NUMBER = 1L << 31;
+
+	private int[] cards;
+
+	/**
+	 * Creates a new DealGenerator
+	 */
+	public DealGenerator()
+	{
+		cards = new int[52];
+	}
+
+	/**
+	 * Checks if the given number is a valid deal number
+	 *
+	 * @param dealNumber the number to check
+	 * @return true if the number is from MIN_DEAL_NUMBER to MAX_DEAL_NUMBER,
+	 *         false if not
+	 */
+	public static boolean isDealNumber(long dealNumber)
+	{
+		return dealNumber >= MIN_DEAL_NUMBER && dealNumber <= MAX_DEAL_NUMBER;
+	}
+
+	/**
+	 * Finds the Cards of the given Microsoft FreeCell game number in the order
+	 * they are dealt (the first Card goes on the first Cascade)
+	 *
+	 * @param dealNumber the game number (MIN_DEAL_NUMBER to MAX_DEAL_NUMBER)
+	 * @param dealtCards the array (52 long) to store the card codes in
+	 */
+	public void deal(long dealNumber, int[] dealtCards)
+	{
+		for (int card = 0; card < 52; card++)
+			cards[card] = card;
+
+		// The 32-bit generator of the Microsoft C library (overflow wraps
+		// around just like it does in C)
+		int seed = (int) dealNumber;
+		for (int left = 52; left > 0; left--)
+		{
+			seed = seed * 214013 + 2531011;
+			int card = (seed >>> 16 & 0x7FFF) % left;
+
+			// Take the chosen Card and fill its spot with the last Card
+			dealtCards[52 - left] = cards[card];
+			cards[card] = cards[left - 1];
+		}
+	}
+
+	/**
+	 * Shuffles the Cards into a random order using the Fisher-Yates shuffle
+	 *
+	 * @param random the RandomGenerator to shuffle with
+	 * @param dealtCards the array (52 long) to store the card codes in
+	 */
+	public void deal(RandomGenerator random, int[] dealtCards)
+	{
+		for (int card = 0; card < 52; card++)
+			dealtCards[card] = card;
+
+		// Go through the Cards backwards swapping each one with a random Card
+		// before it
+		for (int card = 51; card > 0; card--)
+		{
+			int other = random.nextInt(card + 1);
+			int swap = dealtCards[card];
+			dealtCards[card] = dealtCards[other];
+			dealtCards[other] = swap;
+		}
+	}
+}
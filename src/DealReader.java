@@ -0,0 +1,379 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads boards of FreeCell from a text file or any ReadableByteChannel
+ * straight into a GameState, one board at a time. The bytes are parsed as
+ * they are read, so no Strings or other objects are created per board and
+ * corpora of millions of deals can be read quickly. Files opened with open
+ * are memory-mapped.
+ *
+ * Each board is a group of lines ended by a blank line (or the end of the
+ * input). Each Cascade is on its own line from the bottom Card up in the form
+ * of RANKSUIT (ex. KS 2H 9D), optionally starting with a colon (a line with
+ * only a colon is an empty Cascade). A board may also have a line starting
+ * with "Foundations:" with the top Card of each Foundation and a line starting
+ * with "Freecells:" with the Card in each FreeCell, with a dash for each empty
+ * pile. Cards may be in upper or lower case. Every board must have all 52
+ * Cards exactly once (counting the Cards under the top of each Foundation).
+ * DealWriter writes boards in the same layout.
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class DealReader implements Closeable
+{
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	// The most of a file that is mapped at once
+	private static final long MAP_SIZE = 1L << 28;
+
+	private static final int END = -1;
+	private static final int NOT_READ = -2;
+
+	private ReadableByteChannel channel;
+	private ByteBuffer buffer;
+
+	// Only used for memory-mapped files
+	private FileChannel file;
+	private long mapped;
+
+	private int lineNumber;
+	private int next;
+
+	/**
+	 * Creates a new DealReader that reads from the given channel
+	 *
+	 * @param channel the channel to read from
+	 */
+	public DealReader(ReadableByteChannel channel)
+	{
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		this.buffer.flip();
+		this.lineNumber = 1;
+		this.next = NOT_READ;
+	}
+
+	/**
+	 * Creates a new DealReader that reads the given memory-mapped file
+	 *
+	 * @param file the file
+	 */
+	private DealReader(FileChannel file)
+	{
+		this.channel = file;
+		this.file = file;
+		this.buffer = ByteBuffer.allocate(0);
+		this.lineNumber = 1;
+		this.next = NOT_READ;
+	}
+
+	/**
+	 * Opens a DealReader that reads the given file by memory-mapping it
+	 *
+	 * @param path the file to read
+	 * @return the DealReader
+	 * @throws IOException if the file can't be opened
+	 */
+	public static DealReader open(Path path) throws IOException
+	{
+		return new DealReader(FileChannel.open(path, StandardOpenOption.READ));
+	}
+
+	/**
+	 * Reads the next board into the given GameState
+	 *
+	 * @param state the GameState to set up (anything in it is cleared)
+	 * @return true if a board was read, false if there are no boards left
+	 * @throws IOException if the board can't be read or is not a valid board
+	 */
+	public boolean read(GameState state) throws IOException
+	{
+		if (next == NOT_READ)
+			next = read();
+
+		// Skip any blank lines before the board
+		skipSpaces();
+		while (next == '\n')
+		{
+			nextLine();
+			skipSpaces();
+		}
+		if (next == END)
+			return false;
+
+		state.clear();
+		long cards = 0;
+		int cascade = 0;
+		while (next != END && next != '\n')
+		{
+			if (next == 'F' || next == 'f')
+			{
+				// A Foundations or Freecells line
+				next = read();
+				boolean foundations = next == 'o' || next == 'O';
+				while (next != ':' && next != '\n' && next != END)
+					next = read();
+				if (next != ':')
+					throw error("Missing ':' after Foundations or Freecells");
+				next = read();
+
+				if (foundations)
+					cards = readFoundations(state, cards);
+				else
+					cards = readPiles(state, GameState.FIRST_FREECELL,
+							GameState.FIRST_FOUNDATION, cards);
+			}
+			else
+			{
+				if (cascade == GameState.NO_OF_CASCADES)
+					throw error("More than " + GameState.NO_OF_CASCADES
+							+ " Cascades");
+				if (next == ':')
+					next = read();
+				cards = readPiles(state, cascade, cascade + 1, cards);
+				cascade++;
+			}
+
+			nextLine();
+			skipSpaces();
+		}
+
+		if (cards != (1L << 52) - 1)
+			throw error("The board does not have all 52 cards");
+
+		return true;
+	}
+
+	/**
+	 * Finds the number of the line the DealReader is on
+	 *
+	 * @return the line number (starting at 1)
+	 */
+	public int getLineNumber()
+	{
+		return lineNumber;
+	}
+
+	/**
+	 * Closes the channel being read
+	 *
+	 * @throws IOException if the channel can't be closed
+	 */
+	public void close() throws IOException
+	{
+		channel.close();
+	}
+
+	/**
+	 * Reads the top Card of each Foundation (or a dash for an empty
+	 * Foundation) to the end of the line and fills each Foundation up to its
+	 * top Card
+	 *
+	 * @param state the GameState to fill
+	 * @param cards a bit for each Card read so far in this board
+	 * @return cards with the bits for the new Cards set
+	 * @throws IOException if the line can't be read or is not valid
+	 */
+	private long readFoundations(GameState state, long cards)
+			throws IOException
+	{
+		int foundation = GameState.FIRST_FOUNDATION;
+		for (int card = readCard(); card != END; card = readCard())
+		{
+			if (foundation == GameState.NO_OF_PILES)
+				throw error("Too many Foundations");
+
+			// A dash is read as 52
+			if (card < 52)
+				for (int under = card % 4; under <= card; under += 4)
+				{
+					cards = addBit(cards, under);
+					state.addCard(foundation, under);
+				}
+			foundation++;
+		}
+
+		return cards;
+	}
+
+	/**
+	 * Reads the Cards to the end of the line into the given range of piles.
+	 * If there is more than one pile, each pile gets one Card (or a dash for
+	 * an empty pile). If there is only one pile, all of the Cards go into it.
+	 *
+	 * @param state the GameState to fill
+	 * @param first the first pile
+	 * @param last one past the last pile
+	 * @param cards a bit for each Card read so far in this board
+	 * @return cards with the bits for the new Cards set
+	 * @throws IOException if the line can't be read or is not valid
+	 */
+	private long readPiles(GameState state, int first, int last, long cards)
+			throws IOException
+	{
+		boolean onePile = last - first == 1;
+		int pile = first;
+		for (int card = readCard(); card != END; card = readCard())
+		{
+			if (pile == last
+					|| onePile
+					&& state.cardsLeft(pile) == GameState.CASCADE_CAPACITY)
+				throw error("Too many cards");
+
+			if (card < 52)
+			{
+				cards = addBit(cards, card);
+				state.addCard(pile, card);
+			}
+			else if (onePile)
+				throw error("A Cascade can't have a '-'");
+
+			if (!onePile)
+				pile++;
+		}
+
+		return cards;
+	}
+
+	/**
+	 * Reads the next Card on this line
+	 *
+	 * @return the card code, 52 for a dash, or END at the end of the line
+	 * @throws IOException if the Card can't be read or is not valid
+	 */
+	private int readCard() throws IOException
+	{
+		skipSpaces();
+		if (next == '\n' || next == END)
+			return END;
+
+		int rank = next;
+		next = read();
+		if (rank == '-' && isSeparator(next))
+			return 52;
+
+		int suit = next;
+		next = read();
+		int card = Card.indexOf((char) rank, (char) suit);
+		if (card < 0 || suit == END || !isSeparator(next))
+			throw error("Not a card");
+
+		return card;
+	}
+
+	/**
+	 * Sets the bit of a Card checking that it is not already set
+	 *
+	 * @param cards a bit for each Card read so far in this board
+	 * @param card the card code to set the bit of
+	 * @return cards with the bit set
+	 * @throws IOException if the Card was already in the board
+	 */
+	private long addBit(long cards, int card) throws IOException
+	{
+		if ((cards & 1L << card) != 0)
+			throw error(Card.toString(card) + " is in the board twice");
+
+		return cards | 1L << card;
+	}
+
+	/**
+	 * Skips spaces, tabs and carriage returns on the current line
+	 *
+	 * @throws IOException if the input can't be read
+	 */
+	private void skipSpaces() throws IOException
+	{
+		while (next == ' ' || next == '\t' || next == '\r')
+			next = read();
+	}
+
+	/**
+	 * Skips to the start of the next line
+	 *
+	 * @throws IOException if the input can't be read
+	 */
+	private void nextLine() throws IOException
+	{
+		while (next != '\n' && next != END)
+			next = read();
+
+		if (next == '\n')
+		{
+			lineNumber++;
+			next = read();
+		}
+	}
+
+	/**
+	 * Checks if the given character ends a Card
+	 *
+	 * @param character the character (or END)
+	 * @return true if it is a space or the end of the line, false if not
+	 */
+	private static boolean isSeparator(int character)
+	{
+		return character == ' ' || character == '\t' || character == '\r'
+				|| character == '\n' || character == END;
+	}
+
+	/**
+	 * Creates an exception for the current line
+	 *
+	 * @param message what is wrong with the line
+	 * @return the exception
+	 */
+	private IOException error(String message)
+	{
+		return new IOException("Line " + lineNumber + ": " + message);
+	}
+
+	/**
+	 * Reads the next byte, refilling the buffer when it runs out
+	 *
+	 * @return the next byte, or END at the end of the input
+	 * @throws IOException if the input can't be read
+	 */
+	private int read() throws IOException
+	{
+		if (!buffer.hasRemaining() && !fill())
+			return END;
+
+		return buffer.get() & 0xFF;
+	}
+
+	/**
+	 * Fills the buffer with the next part of the input
+	 *
+	 * @return true if there is more input, false at the end of the input
+	 * @throws IOException if the input can't be read
+	 */
+	private boolean fill() throws IOException
+	{
+		if (file != null)
+		{
+			long size = file.size();
+			if (mapped >= size)
+				return false;
+
+			long length = Math.min(MAP_SIZE, size - mapped);
+			buffer = file.map(FileChannel.MapMode.READ_ONLY, mapped, length);
+			mapped += length;
+			return true;
+		}
+
+		buffer.clear();
+		int read = 0;
+		while (read == 0)
+			read = channel.read(buffer);
+		buffer.flip();
+		return read > 0;
+	}
+}
@@ -0,0 +1,204 @@
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes boards of FreeCell to a text file or any WritableByteChannel in the
+ * layout read by DealReader. The Foundations and FreeCells are only written
+ * when they have Cards in them, and then each Cascade is written on its own
+ * line starting with a colon, with a blank line after each board. The bytes
+ * are written straight into a buffer, so no Strings are created per board.
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class DealWriter implements Closeable, Flushable
+{
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	// The longest a board can be: a Foundations and Freecells line (with
+	// room for their labels), 8 Cascades and the blank line
+	private static final int MAX_BOARD_SIZE = 2 * 32 + 8 * 4 + 52 * 3 + 1;
+
+	private WritableByteChannel channel;
+	private ByteBuffer buffer;
+	private GameState state;
+
+	/**
+	 * Creates a new DealWriter that writes to the given channel
+	 *
+	 * @param channel the channel to write to
+	 */
+	public DealWriter(WritableByteChannel channel)
+	{
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		this.state = new GameState();
+	}
+
+	/**
+	 * Opens a DealWriter that writes to the given file, replacing anything
+	 * already in it
+	 *
+	 * @param path the file to write
+	 * @return the DealWriter
+	 * @throws IOException if the file can't be opened
+	 */
+	public static DealWriter open(Path path) throws IOException
+	{
+		return new DealWriter(FileChannel.open(path, StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING));
+	}
+
+	/**
+	 * Writes the deal with the given Cards
+	 *
+	 * @param dealtCards the card codes in the order they are dealt
+	 * @throws IOException if the deal can't be written
+	 */
+	public void write(int[] dealtCards) throws IOException
+	{
+		state.deal(dealtCards);
+		write(state);
+	}
+
+	/**
+	 * Writes the given board
+	 *
+	 * @param board the GameState to write
+	 * @throws IOException if the board can't be written
+	 */
+	public void write(GameState board) throws IOException
+	{
+		if (buffer.remaining() < MAX_BOARD_SIZE)
+			writeBuffer();
+
+		if (hasCards(board, GameState.FIRST_FOUNDATION, GameState.NO_OF_PILES))
+		{
+			putLabel("Foundations:");
+			putTopCards(board, GameState.FIRST_FOUNDATION,
+					GameState.NO_OF_PILES);
+		}
+		if (hasCards(board, GameState.FIRST_FREECELL,
+				GameState.FIRST_FOUNDATION))
+		{
+			putLabel("Freecells:");
+			putTopCards(board, GameState.FIRST_FREECELL,
+					GameState.FIRST_FOUNDATION);
+		}
+
+		for (int pile = 0; pile < GameState.NO_OF_CASCADES; pile++)
+		{
+			buffer.put((byte) ':');
+			for (int card = 0; card < board.cardsLeft(pile); card++)
+			{
+				buffer.put((byte) ' ');
+				putCard(board.getCard(pile, card));
+			}
+			buffer.put((byte) '\n');
+		}
+		buffer.put((byte) '\n');
+	}
+
+	/**
+	 * Writes anything still in the buffer to the channel
+	 *
+	 * @throws IOException if the buffer can't be written
+	 */
+	public void flush() throws IOException
+	{
+		writeBuffer();
+	}
+
+	/**
+	 * Writes anything still in the buffer and closes the channel
+	 *
+	 * @throws IOException if the buffer can't be written or the channel can't
+	 *             be closed
+	 */
+	public void close() throws IOException
+	{
+		writeBuffer();
+		channel.close();
+	}
+
+	/**
+	 * Checks if any of the given range of piles have Cards
+	 *
+	 * @param board the GameState to check
+	 * @param first the first pile
+	 * @param last one past the last pile
+	 * @return true if any of the piles have Cards, false if not
+	 */
+	private static boolean hasCards(GameState board, int first, int last)
+	{
+		for (int pile = first; pile < last; pile++)
+			if (board.cardsLeft(pile) > 0)
+				return true;
+
+		return false;
+	}
+
+	/**
+	 * Puts the top Card of each of the given range of piles (or a dash for
+	 * each empty pile) and the end of the line into the buffer
+	 *
+	 * @param board the GameState to write
+	 * @param first the first pile
+	 * @param last one past the last pile
+	 */
+	private void putTopCards(GameState board, int first, int last)
+	{
+		for (int pile = first; pile < last; pile++)
+		{
+			buffer.put((byte) ' ');
+			if (board.cardsLeft(pile) == 0)
+				buffer.put((byte) '-');
+			else
+				putCard(board.getTopCard(pile));
+		}
+		buffer.put((byte) '\n');
+	}
+
+	/**
+	 * Puts a label into the buffer
+	 *
+	 * @param label the label (ASCII only)
+	 */
+	private void putLabel(String label)
+	{
+		for (int character = 0; character < label.length(); character++)
+			buffer.put((byte) label.charAt(character));
+	}
+
+	/**
+	 * Puts a Card in the form of RANKSUIT into the buffer
+	 *
+	 * @param card the card code
+	 */
+	private void putCard(int card)
+	{
+		String name = Card.toString(card);
+		buffer.put((byte) name.charAt(0));
+		buffer.put((byte) name.charAt(1));
+	}
+
+	/**
+	 * Writes the buffer to the channel and empties it
+	 *
+	 * @throws IOException if the buffer can't be written
+	 */
+	private void writeBuffer() throws IOException
+	{
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+}
@@ -1,7 +1,12 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
 /**
  * A Deck class that stores the Cards in the Deck and the top card. Includes
- * methods to print out the Deck as a String, to shuffle the Deck, to find the
- * number of Cards left in the Deck, and to deal a Card from the Deck.
+ * methods to print out the Deck as a String, to shuffle the Deck (with the
+ * RandomGenerator of the current thread or a given RandomGenerator), to set
+ * the Deck to a numbered Microsoft FreeCell deal, to find the number of Cards
+ * left in the Deck, and to deal a Card from the Deck.
  * 
  * @author Jessica Jiang
  * @version November 8, 2014
@@ -21,14 +26,14 @@ public class Deck
 		deck = new Card[52 * noOfDecks];
 		int cardIndex = 0;
 
-		// Generate the Cards
+		// Fill the Deck with the shared Cards
 		for (int currentDeck = 1; currentDeck <= noOfDecks; currentDeck++)
 		{
 			for (int rank = 1; rank <= 13; rank++)
 			{
 				for (int suit = 1; suit <= 4; suit++)
 				{
-					deck[cardIndex] = new Card(rank, suit);
+					deck[cardIndex] = Card.valueOf(rank, suit);
 					cardIndex++;
 				}
 			}
@@ -46,23 +51,28 @@ public class Deck
 	}
 
 	/**
-	 * Shuffles the cards in the deck using the Fisher-Yates shuffle. All cards
-	 * will be face down and top card is reset to the top of the deck.
+	 * Shuffles the cards in the deck using the Fisher-Yates shuffle and the
+	 * RandomGenerator of the current thread. The top card is reset to the top
+	 * of the deck.
 	 */
 	public void shuffle()
 	{
-		for (int i = 0; i < deck.length; i++)
-		{
-			// If the Card is face up, flip it so it becomes face down
-			if (deck[i].isFaceUp())
-				deck[i].flip();
-		}
+		shuffle(ThreadLocalRandom.current());
+	}
 
+	/**
+	 * Shuffles the cards in the deck using the Fisher-Yates shuffle. The top
+	 * card is reset to the top of the deck.
+	 * 
+	 * @param random the RandomGenerator to shuffle with
+	 */
+	public void shuffle(RandomGenerator random)
+	{
 		// Go through the Deck backwards
 		for (int i = deck.length - 1; i > 0; i--)
 		{
 			// Generate a random number from 0 to the current card
-			int card = (int) (Math.random() * (i + 1));
+			int card = random.nextInt(i + 1);
 
 			// Swap the current Card with the random Card (from 1 to i)
 			Card swap = deck[i];
@@ -74,6 +84,31 @@ public class Deck
 		topCard = deck.length;
 	}
 
+	/**
+	 * Sets the Deck to the given Microsoft FreeCell deal so that the Cards are
+	 * dealt in the same order as that game number. The top card is reset to
+	 * the top of the deck.
+	 * 
+	 * Precondition: the Deck is a single Deck of 52 Cards
+	 * 
+	 * @param dealNumber the game number (1 to DealGenerator.MAX_DEAL_NUMBER)
+	 */
+	public void setDeal(long dealNumber)
+	{
+		// Find each Card in this Deck by its card code
+		Card[] cards = new Card[52];
+		for (int i = 0; i < deck.length; i++)
+			cards[deck[i].getIndex()] = deck[i];
+
+		// The first Card dealt is the top Card
+		int[] dealtCards = new int[52];
+		new DealGenerator().deal(dealNumber, dealtCards);
+		for (int i = 0; i < deck.length; i++)
+			deck[deck.length - 1 - i] = cards[dealtCards[i]];
+
+		topCard = deck.length;
+	}
+
 	/**
 	 * Finds the number of Cards left in the Deck
 	 * 
@@ -98,6 +133,24 @@ public class Deck
 		return deck[topCard];
 	}
 
+	/**
+	 * Gets the card codes (see GameState) of the Cards left in the Deck in the
+	 * order they would be dealt
+	 * 
+	 * @return the card codes in the order they would be dealt
+	 */
+	public int[] getDealOrder()
+	{
+		int[] dealOrder = new int[topCard];
+		for (int card = 0; card < topCard; card++)
+		{
+			Card next = deck[topCard - 1 - card];
+			dealOrder[card] = next.getIndex();
+		}
+
+		return dealOrder;
+	}
+
 	/**
 	 * Returns the remaining Cards in the Deck as a String
 	 * 
@@ -1,4 +1,3 @@
-import javax.swing.ImageIcon;
 import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JFrame;
 import javax.swing.JMenu;
@@ -14,6 +13,7 @@ import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.net.URL;
 
 /**
  * Main Frame for a Simple Free cell Game Sets up the menus and places a
@@ -26,9 +26,11 @@ import java.awt.event.WindowEvent;
 public class FreeCellMain extends JFrame implements ActionListener
 {
 	private CardPanel cardArea;
-	private JMenuItem newMenuItem, statisticsOption, quitMenuItem;
-	private JMenuItem undoOption, aboutMenuItem;
+	private JMenuItem newMenuItem, selectGameMenuItem, statisticsOption,
+			quitMenuItem;
+	private JMenuItem undoOption, redoOption, aboutMenuItem;
 	private JCheckBoxMenuItem autoCompleteMenuItem;
+	private static long startTime = System.nanoTime();
 
 	/**
 	 * Creates a FreeCellMain from object
@@ -38,8 +40,13 @@ public class FreeCellMain extends JFrame implements ActionListener
 		super("FreeCell");
 		setResizable(false);
 
-		// Add in an Icon - Ace of Spades
-		setIconImage(new ImageIcon("images\\ace.png").getImage());
+		// Start decoding the Card images while the window is set up
+		CardAtlas.loadInBackground(this);
+
+		// Add in an Icon - Ace of Spades (loaded in the background)
+		URL iconURL = CardAtlas.getImageURL("ace.png");
+		if (iconURL != null)
+			setIconImage(Toolkit.getDefaultToolkit().createImage(iconURL));
 		addWindowListener(new CloseWindow());
 
 		// Add in a Simple Menu
@@ -49,6 +56,9 @@ public class FreeCellMain extends JFrame implements ActionListener
 		newMenuItem = new JMenuItem("New Game");
 		newMenuItem.addActionListener(this);
 
+		selectGameMenuItem = new JMenuItem("Select Game...");
+		selectGameMenuItem.addActionListener(this);
+
 		statisticsOption = new JMenuItem("Statistics");
 		statisticsOption.addActionListener(this);
 
@@ -57,16 +67,24 @@ public class FreeCellMain extends JFrame implements ActionListener
 
 		undoOption = new JMenuItem("Undo Move");
 		undoOption.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Z,
-				InputEvent.CTRL_MASK));
+				InputEvent.CTRL_DOWN_MASK));
 		undoOption.addActionListener(this);
 		undoOption.setEnabled(false);
 
+		redoOption = new JMenuItem("Redo Move");
+		redoOption.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Y,
+				InputEvent.CTRL_DOWN_MASK));
+		redoOption.addActionListener(this);
+		redoOption.setEnabled(false);
+
 		autoCompleteMenuItem = new JCheckBoxMenuItem("Auto Complete", true);
 		autoCompleteMenuItem.addActionListener(this);
 
 		gameMenu.add(newMenuItem);
+		gameMenu.add(selectGameMenuItem);
 		gameMenu.add(statisticsOption);
 		gameMenu.add(undoOption);
+		gameMenu.add(redoOption);
 		gameMenu.add(autoCompleteMenuItem);
 		gameMenu.addSeparator();
 		gameMenu.add(quitMenuItem);
@@ -105,9 +123,14 @@ public class FreeCellMain extends JFrame implements ActionListener
 		{
 			cardArea.newGame();
 		}
+		else if (event.getSource() == selectGameMenuItem)
+		{
+			selectGame();
+		}
 		else if (event.getSource() == statisticsOption)
 		{
-			JOptionPane.showMessageDialog(cardArea,stats, "Statistics",
+			JOptionPane.showMessageDialog(cardArea, new Object[] { stats,
+					stats.analyticsToString() }, "Statistics",
 					JOptionPane.INFORMATION_MESSAGE);
 		}
 		else if (event.getSource() == quitMenuItem)
@@ -127,16 +150,19 @@ public class FreeCellMain extends JFrame implements ActionListener
 				if (cardArea.isPlayingGame())
 				{
 					stats.resetCurrentWinStreak();
+					cardArea.recordGame(GameJournal.QUIT);
 				}
-				stats.writeToFile("stats.dat");
+				cardArea.saveStats();
 				System.exit(0);
 			}
 		}
 		else if (event.getSource() == undoOption)
 		{
 			cardArea.undo();
-			if (!cardArea.canUndo())
-				setUndoOption(false);
+		}
+		else if (event.getSource() == redoOption)
+		{
+			cardArea.redo();
 		}
 
 		else if (event.getSource() == aboutMenuItem)
@@ -151,6 +177,37 @@ public class FreeCellMain extends JFrame implements ActionListener
 		}
 	}
 
+	/**
+	 * Asks the user for a game number and starts that game
+	 */
+	private void selectGame()
+	{
+		String input = JOptionPane.showInputDialog(cardArea, "Game number (1 - "
+				+ DealGenerator.MAX_DEAL_NUMBER + "):", "Select Game",
+				JOptionPane.QUESTION_MESSAGE);
+
+		// The user cancelled
+		if (input == null)
+			return;
+
+		try
+		{
+			long dealNumber = Long.parseLong(input.trim());
+			if (DealGenerator.isDealNumber(dealNumber))
+			{
+				cardArea.newGame(dealNumber);
+				return;
+			}
+		}
+		catch (NumberFormatException exp)
+		{
+		}
+
+		JOptionPane.showMessageDialog(cardArea, "\"" + input
+				+ "\" is not a valid game number", "Select Game",
+				JOptionPane.ERROR_MESSAGE);
+	}
+
 	/**
 	 * Sets the Undo object in the Menu
 	 * 
@@ -161,6 +218,16 @@ public class FreeCellMain extends JFrame implements ActionListener
 		this.undoOption.setEnabled(canUndo);
 	}
 
+	/**
+	 * Sets the Redo object in the Menu
+	 * 
+	 * @param canRedo if you can redo or not
+	 */
+	public void setRedoOption(boolean canRedo)
+	{
+		this.redoOption.setEnabled(canRedo);
+	}
+
 	private class CloseWindow extends WindowAdapter
 	{
 		// Deals with window closing
@@ -180,15 +247,29 @@ public class FreeCellMain extends JFrame implements ActionListener
 				if (cardArea.isPlayingGame())
 				{
 					stats.resetCurrentWinStreak();
+					cardArea.recordGame(GameJournal.QUIT);
 				}
-				stats.writeToFile("stats.dat");
+				cardArea.saveStats();
 				System.exit(0);
 			}
 		}
 	}
 
+	/**
+	 * Records how long after the start of main a stage of the start up was
+	 * reached, as a Java Flight Recorder event (see GameEvents)
+	 * 
+	 * @param stage the stage reached
+	 */
+	public void recordStartTime(String stage)
+	{
+		new GameEvents.StartupEvent().record(stage, System.nanoTime()
+				- startTime, CardAtlas.getLoadTime());
+	}
+
 	public static void main(String[] args)
 	{
+		startTime = System.nanoTime();
 		FreeCellMain frame = new FreeCellMain();
 		frame.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
 		frame.pack();
@@ -1,16 +1,15 @@
 import java.awt.Graphics;
-import java.awt.Image;
 import java.awt.Point;
 import java.awt.Rectangle;
 
-import javax.swing.ImageIcon;
-
 /**
  * Keeps track of a Graphical Card (GCard). Inherits data and methods from Card.
- * Keeps track of a position and an Image for each GCard. Also keeps track of
- * some static variables for the background image and the width and height of
- * each GCard. Includes methods to construct a new GCard, look at and change a
- * GCard's position and draw this GCard. Overrides the abstract Movable methods
+ * Keeps track of a position and whether or not the Card is face up for each
+ * GCard (the Card itself never changes, and the images of every Card are
+ * kept in the CardAtlas). Also keeps track of the width and height of each
+ * GCard. Includes methods to construct a new GCard, look at and change a
+ * GCard's position, flip the GCard, check if it is face up and draw this
+ * GCard. Overrides the abstract Movable methods
  * to check if this GCard intersects a given GHand, to check if a given point is
  * contained within this GCard, to check if the GCard can be placed on a given
  * GHand and to place the GCard on a given GHand.
@@ -21,13 +20,11 @@ import javax.swing.ImageIcon;
  */
 public class GCard extends Card implements Movable
 {
-	public final static Image BACK_IMAGE = new ImageIcon("images\\blueback.png")
-			.getImage();
-	public final static int WIDTH = BACK_IMAGE.getWidth(null);
-	public final static int HEIGHT = BACK_IMAGE.getHeight(null);
+	public final static int WIDTH = CardAtlas.WIDTH;
+	public final static int HEIGHT = CardAtlas.HEIGHT;
 
 	private Point position;
-	private Image image;
+	private boolean isFaceUp;
 
 	/**
 	 * Constructs a graphical Card
@@ -38,13 +35,42 @@ public class GCard extends Card implements Movable
 	 */
 	public GCard(int rank, int suit, Point position)
 	{
-		super(rank, suit);
+		super(Card.valueOf(rank, suit));
 		this.position = position;
-		// Load up the appropriate image file for this card
-		String imageFileName = "" + " cdhs".charAt(suit) + rank + ".png";
-		imageFileName = "images\\" + imageFileName;
-		image = new ImageIcon(imageFileName).getImage();
+		this.isFaceUp = false;
+	}
+
+	/**
+	 * Returns the Card as a String in the format of RANKSUIT. If the String is
+	 * in upper case, the Card is face up; if the String is in lower case, the
+	 * Card is face down.
+	 * 
+	 * @return the Card as a String
+	 */
+	public String toString()
+	{
+		if (isFaceUp)
+			return super.toString();
 
+		return super.toString().toLowerCase();
+	}
+
+	/**
+	 * Flips the card
+	 */
+	public void flip()
+	{
+		this.isFaceUp = !isFaceUp;
+	}
+
+	/**
+	 * Checks if the Card is face up
+	 * 
+	 * @return true if the Card is face up, false if the Card is face down
+	 */
+	public boolean isFaceUp()
+	{
+		return isFaceUp;
 	}
 
 	/**
@@ -74,10 +100,15 @@ public class GCard extends Card implements Movable
 	 */
 	public void draw(Graphics g)
 	{
+		// Skip Cards outside of the area being repainted
+		if (!g.hitClip(position.x, position.y, WIDTH, HEIGHT))
+			return;
+
+		// The images of all of the Cards are kept in the CardAtlas
 		if (isFaceUp)
-			g.drawImage(image, position.x, position.y, null);
+			CardAtlas.draw(g, getIndex(), position.x, position.y);
 		else
-			g.drawImage(BACK_IMAGE, position.x, position.y, null);
+			CardAtlas.draw(g, CardAtlas.BACK, position.x, position.y);
 	}
 
 	/**
@@ -100,8 +131,18 @@ public class GCard extends Card implements Movable
 	 */
 	public boolean contains(Point point)
 	{
-		return (new Rectangle(position.x, position.y, WIDTH, HEIGHT))
-				.contains(point);
+		return point.x >= position.x && point.x < position.x + WIDTH
+				&& point.y >= position.y && point.y < position.y + HEIGHT;
+	}
+
+	/**
+	 * Returns the outlining Rectangle of this Card
+	 * 
+	 * @return the outlining Rectangle of this Card
+	 */
+	public Rectangle getRectangle()
+	{
+		return new Rectangle(position.x, position.y, WIDTH, HEIGHT);
 	}
 
 	/**
@@ -125,36 +166,9 @@ public class GCard extends Card implements Movable
 	 */
 	public boolean canPlaceOn(GHand otherHand)
 	{
-		Card otherCard = otherHand.getTopCard();
-
-		// The GHand is a FreeCell
-		if (otherHand instanceof FreeCell)
-			return otherHand.cardsLeft() == 0;
-
-		// The GHand is a Foundation
-		if (otherHand instanceof Foundation)
-		{
-			// Foundation is empty
-			if (otherHand.cardsLeft() == 0)
-			{
-				// Placing an Ace is valid
-				if (this.isAce())
-					return true;
-
-				// Placing anything else is not valid
-				else
-					return false;
-			}
-
-			else
-				return this.canPlaceOnFoundation(otherCard);
-		}
-
-		// The GHand is a Cascade
-		if (otherHand.cardsLeft() == 0)
-			return true;
-		else
-			return this.canPlaceOnCascade(otherCard);
+		// Let the rules of the game decide
+		return otherHand.getGame().canPlace(getIndex(), 1,
+				otherHand.getPile());
 	}
 
 	/**
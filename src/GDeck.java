@@ -1,10 +1,13 @@
 import java.awt.Graphics;
 import java.awt.Point;
 
+import java.util.random.RandomGenerator;
+
 /**
  * Keeps track of a Graphical Deck (GDeck). Inherits data and methods from Deck.
  * Keeps track of this Deck's position.  Includes methods to construct this Deck,
- * shuffle the Deck, deal GCards from this Deck and to draw this Deck.
+ * shuffle the Deck or set it to a numbered deal, deal GCards from this Deck and
+ * to draw this Deck.
  * @author Ridout
  * @version November 2014
  */
@@ -30,17 +33,39 @@ public class GDeck extends Deck
 	}
 
 	/**
-	 * Shuffles the GDeck by shuffling all of the Cards. Also sets the position
-	 * of all of the Cards in the GDeck back to the GDecks's positions
+	 * Shuffles the GDeck by shuffling all of the Cards. Also turns all of the
+	 * Cards face down and sets their position back to the GDecks's position
+	 * 
+	 * @param random the RandomGenerator to shuffle with
+	 */
+	public void shuffle(RandomGenerator random)
+	{
+		super.shuffle(random);
+		gatherCards();
+	}
+
+	/**
+	 * Sets the GDeck to the given numbered deal. Also turns all of the Cards
+	 * face down and sets their position back to the GDecks's position
+	 * 
+	 * @param dealNumber the game number (1 to DealGenerator.MAX_DEAL_NUMBER)
 	 */
-	public void shuffle()
+	public void setDeal(long dealNumber)
 	{
-		super.shuffle();
+		super.setDeal(dealNumber);
+		gatherCards();
+	}
 
-		// Put the cards back to the position of the Deck
+	/**
+	 * Puts the Cards back to the position of the Deck face down
+	 */
+	private void gatherCards()
+	{
 		for (int index = 0; index < topCard; index++)
 		{
 			GCard nextCard = (GCard) deck[index];
+			if (nextCard.isFaceUp())
+				nextCard.flip();
 			nextCard.setPosition(position);
 		}
 	}
@@ -25,6 +25,8 @@ public abstract class GHand extends Hand
 	protected Point position;
 	private int width, height;
 	private int spacing;
+	protected GameState game;
+	protected int pile;
 
 	/**
 	 * Constructs a new GHand with the given x and y position and horizontal
@@ -43,6 +45,39 @@ public abstract class GHand extends Hand
 		this.spacing = spacing;
 	}
 
+	/**
+	 * Connects this GHand to the pile of the given GameState that keeps track
+	 * of the rules for this GHand
+	 * 
+	 * @param game the GameState this GHand belongs to
+	 * @param pile the pile number of this GHand in the GameState
+	 */
+	public void setGame(GameState game, int pile)
+	{
+		this.game = game;
+		this.pile = pile;
+	}
+
+	/**
+	 * Gets the GameState this GHand belongs to
+	 * 
+	 * @return the GameState this GHand belongs to
+	 */
+	public GameState getGame()
+	{
+		return game;
+	}
+
+	/**
+	 * Gets the pile number of this GHand in its GameState
+	 * 
+	 * @return the pile number of this GHand
+	 */
+	public int getPile()
+	{
+		return pile;
+	}
+
 	/**
 	 * Returns the position of the top left corner of this Hand
 	 * 
@@ -122,8 +157,50 @@ public abstract class GHand extends Hand
 	 */
 	public boolean contains(Point point)
 	{
-		return (new Rectangle(position.x, position.y, width, height))
-				.contains(point);
+		return contains(point.x, point.y);
+	}
+
+	/**
+	 * Checks to see if the given point is contained within this Hand
+	 * 
+	 * @param x the x position of the point to check
+	 * @param y the y position of the point to check
+	 * @return true if the point is in this Hand, false if not
+	 */
+	public boolean contains(int x, int y)
+	{
+		return x >= position.x && x < position.x + width && y >= position.y
+				&& y < position.y + height;
+	}
+
+	/**
+	 * Finds the Card shown at the given point (the Cards further down the
+	 * Hand are covered by the Cards above them)
+	 * 
+	 * @param x the x position of the point to check
+	 * @param y the y position of the point to check
+	 * @return the index of the Card, or -1 if there is no Card at the point
+	 */
+	public int cardAt(int x, int y)
+	{
+		if (hand.size() == 0 || !contains(x, y))
+			return -1;
+
+		if (spacing == 0)
+			return hand.size() - 1;
+
+		return Math.min((y - position.y) / spacing, hand.size() - 1);
+	}
+
+	/**
+	 * Gets the spacing between the Cards of this Hand
+	 * 
+	 * @return the spacing in pixels (0 if the Cards are stacked on each
+	 *         other)
+	 */
+	public int getSpacing()
+	{
+		return spacing;
 	}
 
 	/**
@@ -137,16 +214,24 @@ public abstract class GHand extends Hand
 	}
 
 	/**
-	 * Displays the Cards in this Hand in this Hand's position
+	 * Draws the outline of the spot for this Hand on the table
+	 * 
+	 * @param g Graphics context to display the outline
+	 */
+	public void drawOutline(Graphics g)
+	{
+		g.setColor(Color.BLUE);
+		g.drawRect(position.x, position.y, GCard.WIDTH, GCard.HEIGHT);
+	}
+
+	/**
+	 * Displays the Cards in this Hand in this Hand's position (the outline
+	 * is drawn once on the table, see drawOutline)
 	 * 
 	 * @param g Graphics context to display this GHand
 	 */
 	public void draw(Graphics g)
 	{
-		// Draw an outline of the Hand
-		g.setColor(Color.BLUE);
-		if (!(this instanceof Tableau))
-			g.drawRect(position.x, position.y, GCard.WIDTH, GCard.HEIGHT);
 		for (Card next : hand)
 		{
 			((GCard) next).draw(g);
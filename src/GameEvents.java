@@ -0,0 +1,318 @@
+import java.awt.Graphics;
+import java.awt.Rectangle;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The Java Flight Recorder events of the game, so that real games can be
+ * profiled (ex. java -XX:StartFlightRecording=filename=freecell.jfr
+ * FreeCellMain). Each event keeps how long something took and how much work
+ * it did. When nothing is being recorded, begin and end do nothing and the
+ * fields are never filled in, so the events cost almost nothing.
+ *
+ * Each event is used the same way:
+ *
+ * MoveEvent event = new MoveEvent(); event.begin(); ...; event.finish(...);
+ *
+ * where finish ends the event and only fills in the fields and commits the
+ * event if it is being recorded. A StartupEvent marks a single point in time,
+ * so it is only recorded (see record).
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class GameEvents
+{
+	/**
+	 * A point in the start up of the game (ex. the first frame painted)
+	 */
+	@Name("FreeCell.Startup")
+	@Label("Startup")
+	@Category({ "FreeCell", "Startup" })
+	@Description("How long after the start of main the game reached a stage")
+	@StackTrace(false)
+	public static class StartupEvent extends Event
+	{
+		@Label("Stage")
+		private String stage;
+
+		@Label("Since Start")
+		@Timespan(Timespan.NANOSECONDS)
+		private long sinceStart;
+
+		@Label("Image Load Time")
+		@Description("Time taken to decode the Card images, 0 if not loaded")
+		@Timespan(Timespan.NANOSECONDS)
+		private long imageLoadTime;
+
+		/**
+		 * Commits this event if it is being recorded
+		 *
+		 * @param stage the stage reached
+		 * @param sinceStart the number of nanoseconds since main started
+		 * @param imageLoadTime the number of nanoseconds the Card images took
+		 *            to decode, or 0 if they haven't been loaded yet
+		 */
+		public void record(String stage, long sinceStart, long imageLoadTime)
+		{
+			if (shouldCommit())
+			{
+				this.stage = stage;
+				this.sinceStart = sinceStart;
+				this.imageLoadTime = imageLoadTime;
+				commit();
+			}
+		}
+	}
+
+	/**
+	 * A move made by the user dropping Cards in mouseReleased
+	 */
+	@Name("FreeCell.Move")
+	@Label("Move")
+	@Category({ "FreeCell", "Game" })
+	@Description("A move made by dropping Cards on a Hand")
+	@StackTrace(false)
+	public static class MoveEvent extends Event
+	{
+		@Label("From Pile")
+		private int fromPile;
+
+		@Label("To Pile")
+		private int toPile;
+
+		@Label("Cards")
+		private int noOfCards;
+
+		/**
+		 * Ends this event and commits it if it is being recorded
+		 *
+		 * @param move the packed move, or -1 if the Cards were dropped back
+		 *            where they came from
+		 */
+		public void finish(int move)
+		{
+			end();
+			if (shouldCommit())
+			{
+				fromPile = move < 0 ? -1 : GameState.moveFrom(move);
+				toPile = move < 0 ? -1 : GameState.moveTo(move);
+				noOfCards = move < 0 ? 0 : GameState.moveCount(move);
+				commit();
+			}
+		}
+	}
+
+	/**
+	 * A pass of auto complete moving safe Cards up to the Foundations
+	 */
+	@Name("FreeCell.AutoComplete")
+	@Label("Auto Complete")
+	@Category({ "FreeCell", "Game" })
+	@Description("A pass moving the safe Cards up to the Foundations")
+	@StackTrace(false)
+	public static class AutoCompleteEvent extends Event
+	{
+		@Label("Cards Moved")
+		private int noOfMoves;
+
+		@Label("Checked All Piles")
+		private boolean checkedAllPiles;
+
+		/**
+		 * Ends this event and commits it if it is being recorded
+		 *
+		 * @param noOfMoves the number of Cards moved up
+		 * @param checkedAllPiles true if every pile was checked, false if
+		 *            only the piles changed by the last move were
+		 */
+		public void finish(int noOfMoves, boolean checkedAllPiles)
+		{
+			end();
+			if (shouldCommit())
+			{
+				this.noOfMoves = noOfMoves;
+				this.checkedAllPiles = checkedAllPiles;
+				commit();
+			}
+		}
+	}
+
+	/**
+	 * A call to paintComponent of the CardPanel
+	 */
+	@Name("FreeCell.Paint")
+	@Label("Paint")
+	@Category({ "FreeCell", "Drawing" })
+	@Description("Drawing the table, the Hands and the selected Cards")
+	@StackTrace(false)
+	public static class PaintEvent extends Event
+	{
+		@Label("Width")
+		private int width;
+
+		@Label("Height")
+		private int height;
+
+		@Label("Pixels")
+		private int pixels;
+
+		/**
+		 * Ends this event and commits it if it is being recorded
+		 *
+		 * @param g the Graphics context that was drawn in (its clip is the
+		 *            area that was repainted)
+		 */
+		public void finish(Graphics g)
+		{
+			end();
+			if (shouldCommit())
+			{
+				Rectangle clip = g.getClipBounds();
+				if (clip != null)
+				{
+					width = clip.width;
+					height = clip.height;
+					pixels = clip.width * clip.height;
+				}
+				commit();
+			}
+		}
+	}
+
+	/**
+	 * Dealing a new game
+	 */
+	@Name("FreeCell.Deal")
+	@Label("Deal")
+	@Category({ "FreeCell", "Game" })
+	@Description("Clearing the table and dealing a new game")
+	@StackTrace(false)
+	public static class DealEvent extends Event
+	{
+		@Label("Deal Number")
+		private long dealNumber;
+
+		@Label("Cards")
+		private int noOfCards;
+
+		/**
+		 * Ends this event and commits it if it is being recorded
+		 *
+		 * @param dealNumber the Microsoft FreeCell game number dealt
+		 * @param noOfCards the number of Cards dealt
+		 */
+		public void finish(long dealNumber, int noOfCards)
+		{
+			end();
+			if (shouldCommit())
+			{
+				this.dealNumber = dealNumber;
+				this.noOfCards = noOfCards;
+				commit();
+			}
+		}
+	}
+
+	/**
+	 * Reading or writing the Statistics file
+	 */
+	@Name("FreeCell.StatisticsIO")
+	@Label("Statistics I/O")
+	@Category({ "FreeCell", "I/O" })
+	@Description("Reading or writing the Statistics file")
+	@StackTrace(false)
+	public static class StatisticsIOEvent extends Event
+	{
+		@Label("File")
+		private String fileName;
+
+		@Label("Write")
+		private boolean write;
+
+		@Label("Size")
+		@DataAmount
+		private long bytes;
+
+		/**
+		 * Ends this event and commits it if it is being recorded
+		 *
+		 * @param fileName the name of the file
+		 * @param write true if the file was written, false if it was read
+		 * @param bytes the number of bytes read or written
+		 */
+		public void finish(String fileName, boolean write, long bytes)
+		{
+			end();
+			if (shouldCommit())
+			{
+				this.fileName = fileName;
+				this.write = write;
+				this.bytes = bytes;
+				commit();
+			}
+		}
+	}
+
+	/**
+	 * A search of a Solver or ParallelSolver
+	 */
+	@Name("FreeCell.Solve")
+	@Label("Solve")
+	@Category({ "FreeCell", "Solver" })
+	@Description("A search for the solution of a deal")
+	@StackTrace(false)
+	public static class SolveEvent extends Event
+	{
+		@Label("Result")
+		private String result;
+
+		@Label("Solution Length")
+		private int length;
+
+		@Label("Nodes Expanded")
+		private int nodesExpanded;
+
+		@Label("Threads")
+		private int threads;
+
+		@Label("Table Overflows")
+		@Description("Positions the transposition table had no room for")
+		private long tableOverflows;
+
+		/**
+		 * Ends this event and commits it if it is being recorded
+		 *
+		 * @param solution the Solution found
+		 * @param threads the number of threads that searched
+		 * @param tableOverflows the number of positions the transposition
+		 *            table replaced or couldn't store (a sign that it is too
+		 *            small for the search)
+		 */
+		public void finish(Solution solution, int threads, long tableOverflows)
+		{
+			end();
+			if (shouldCommit())
+			{
+				if (solution.isSolved())
+					result = "solved";
+				else if (solution.getResult() == Solution.UNSOLVABLE)
+					result = "unsolvable";
+				else
+					result = "gave up";
+				length = solution.getLength();
+				nodesExpanded = solution.getNodesExpanded();
+				this.threads = threads;
+				this.tableOverflows = tableOverflows;
+				commit();
+			}
+		}
+	}
+}
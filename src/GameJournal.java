@@ -0,0 +1,593 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * An append-only journal of every game played, kept in a memory-mapped file
+ * so that millions of games can be added and searched without reading them
+ * all into memory. Each game is a fixed size record, so the last N games are
+ * found straight from their position in the file. The file starts with:
+ *
+ * magic number (4 bytes), version (4 bytes), number of games (4 bytes), 4
+ * unused bytes and then a table of BUCKETS bucket heads (4 bytes each)
+ *
+ * and each game after that is RECORD_SIZE bytes:
+ *
+ * deal number (4 bytes, unsigned), start and end time (8 bytes each, in
+ * milliseconds since 1970), number of moves and number of undos (2 bytes
+ * each), outcome (1 byte), 1 unused byte, length of the Solver's solution (2
+ * bytes, 0xFFFF if not known) and the previous game in the same bucket (4
+ * bytes).
+ *
+ * The games of each deal are found through the bucket of the deal number:
+ * the bucket head is the last game added with a deal number in that bucket
+ * and each game links back to the one before it. Links are stored as the
+ * index of the game plus 1, so 0 (an empty file) means no game. A game is
+ * forced to the disk before its bucket head is changed, and the bucket head
+ * before the number of games in the header, so even if the computer loses
+ * power a counted game has been written and linked. A game that was cut off
+ * is not counted and is ignored. Its bucket head may already point to it, so
+ * when the journal is opened that bucket is set back to the game before it.
+ *
+ * Only one game can have the journal open at a time (see open).
+ *
+ * Usage: java GameJournal journalFile [deal dealNumber | last noOfGames]
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class GameJournal implements Closeable
+{
+	public static final int MAGIC = 0x46434A4E; // "FCJN"
+	public static final int VERSION = 1;
+	public static final int BUCKETS = 4096;
+	public static final int HEADER_SIZE = 16 + BUCKETS * 4;
+	public static final int RECORD_SIZE = 32;
+
+	// Outcomes of a game
+	public static final int WON = 0;
+	public static final int GAVE_UP = 1;
+	public static final int QUIT = 2;
+
+	public static final int UNKNOWN_LENGTH = 0xFFFF;
+
+	private static final int COUNT = 8;
+	private static final int INITIAL_RECORDS = 1024;
+
+	// Where each field is in a record
+	private static final int DEAL = 0;
+	private static final int START_TIME = 4;
+	private static final int END_TIME = 12;
+	private static final int MOVES = 20;
+	private static final int UNDOS = 22;
+	private static final int OUTCOME = 24;
+	private static final int SOLUTION_LENGTH = 26;
+	private static final int PREVIOUS = 28;
+
+	// The journals open in this program. Closing a second channel to a
+	// locked file would give up the lock, so a journal is only opened once
+	private static final Set<Path> openJournals = new HashSet<Path>();
+
+	private Path path;
+	private FileChannel file;
+	private MappedByteBuffer buffer;
+	private int noOfGames;
+	private boolean readOnly;
+
+	/**
+	 * Opens a GameJournal, creating the file if it doesn't exist. The file is
+	 * locked until the journal is closed, since two games adding to the same
+	 * journal would write over each other's games and bucket heads
+	 *
+	 * @param path the journal file
+	 * @return the GameJournal
+	 * @throws IOException if the file can't be opened, isn't a journal or is
+	 *             being used by another game
+	 */
+	public static GameJournal open(Path path) throws IOException
+	{
+		path = path.toAbsolutePath().normalize();
+		synchronized (openJournals)
+		{
+			if (!openJournals.add(path))
+				throw new IOException("Game journal is already open");
+		}
+
+		FileChannel file = null;
+		try
+		{
+			file = FileChannel.open(path, StandardOpenOption.CREATE,
+					StandardOpenOption.READ, StandardOpenOption.WRITE);
+			FileLock lock = null;
+			try
+			{
+				lock = file.tryLock();
+			}
+			catch (OverlappingFileLockException exp)
+			{
+				// Open in this program under another name
+			}
+			if (lock == null)
+				throw new IOException("Game journal is in use by another game");
+
+			GameJournal journal = new GameJournal(file, false);
+			journal.path = path;
+			return journal;
+		}
+		catch (IOException exp)
+		{
+			if (file != null)
+				file.close();
+			synchronized (openJournals)
+			{
+				openJournals.remove(path);
+			}
+			throw exp;
+		}
+	}
+
+	/**
+	 * Opens an existing GameJournal to look up games without changing the
+	 * file (ex. while the game is adding to it). Only the games counted
+	 * when it is opened are seen, and nothing can be added
+	 *
+	 * @param path the journal file
+	 * @return the GameJournal
+	 * @throws IOException if the file can't be opened or isn't a journal
+	 */
+	public static GameJournal openReadOnly(Path path) throws IOException
+	{
+		FileChannel file = FileChannel.open(path, StandardOpenOption.READ);
+		try
+		{
+			return new GameJournal(file, true);
+		}
+		catch (IOException exp)
+		{
+			file.close();
+			throw exp;
+		}
+	}
+
+	/**
+	 * Creates a new GameJournal from an open file
+	 *
+	 * @param file the journal file, opened for reading (and writing if not
+	 *            read only)
+	 * @param readOnly true if the file is only read
+	 * @throws IOException if the file isn't a journal
+	 */
+	private GameJournal(FileChannel file, boolean readOnly)
+			throws IOException
+	{
+		this.file = file;
+		this.readOnly = readOnly;
+		boolean isNew = file.size() == 0 && !readOnly;
+		if (file.size() > Integer.MAX_VALUE)
+			throw new IOException("Game journal is too big");
+		if (readOnly)
+			map(file.size());
+		else
+			map(Math.max(file.size(), HEADER_SIZE + (long) INITIAL_RECORDS
+					* RECORD_SIZE));
+
+		if (isNew)
+		{
+			buffer.putInt(0, MAGIC);
+			buffer.putInt(4, VERSION);
+			buffer.force();
+		}
+		else
+		{
+			if (file.size() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+				throw new IOException("Not a game journal");
+			if (buffer.getInt(4) != VERSION)
+				throw new IOException("Unknown game journal version "
+						+ buffer.getInt(4));
+		}
+
+		noOfGames = buffer.getInt(COUNT);
+		if (noOfGames < 0 || offset(noOfGames) > buffer.capacity())
+			throw new IOException("Game journal is cut off");
+		if (!readOnly)
+			repairBuckets();
+	}
+
+	/**
+	 * Sets back any bucket head that points to a game that was cut off by a
+	 * crash (after the bucket head was changed but before the game was
+	 * counted) to the game it links back to. Otherwise the next game added
+	 * would take the place of the cut off game and the bucket would follow
+	 * the links of the new game's bucket instead of its own
+	 *
+	 * @throws IOException if a bucket head points past the cut off game
+	 */
+	private void repairBuckets() throws IOException
+	{
+		boolean repaired = false;
+		for (int bucket = 16; bucket < HEADER_SIZE; bucket += 4)
+		{
+			int head = buffer.getInt(bucket);
+			if (head <= noOfGames)
+				continue;
+
+			// Only the game after the last one counted can be cut off
+			int previous = 0;
+			if (offset(noOfGames + 1) <= buffer.capacity())
+				previous = buffer.getInt(offset(noOfGames) + PREVIOUS);
+			if (head != noOfGames + 1 || previous < 0
+					|| previous > noOfGames)
+				throw new IOException("Game journal is corrupted");
+
+			buffer.putInt(bucket, previous);
+			repaired = true;
+		}
+
+		if (repaired)
+			buffer.force();
+	}
+
+	/**
+	 * Adds a game to the end of this GameJournal
+	 *
+	 * @param dealNumber the Microsoft deal number of the game
+	 * @param startTime the time the game started (from
+	 *            System.currentTimeMillis)
+	 * @param endTime the time the game ended
+	 * @param noOfMoves the number of moves played (including auto moves)
+	 * @param noOfUndos the number of moves undone
+	 * @param outcome WON, GAVE_UP or QUIT
+	 * @param solutionLength the number of moves in the Solver's solution of
+	 *            the deal, or UNKNOWN_LENGTH
+	 * @return the index of the game in this GameJournal
+	 * @throws IOException if the journal is read only or can't be made
+	 *             bigger
+	 */
+	public int add(long dealNumber, long startTime, long endTime,
+			int noOfMoves, int noOfUndos, int outcome, int solutionLength)
+			throws IOException
+	{
+		if (readOnly)
+			throw new IOException("Game journal is read only");
+		if (offset(noOfGames + 1) > buffer.capacity())
+		{
+			if ((long) buffer.capacity() * 2 > Integer.MAX_VALUE)
+				throw new IOException("Game journal is full");
+			map(buffer.capacity() * 2L);
+		}
+
+		int record = offset(noOfGames);
+		int bucket = bucket(dealNumber);
+		buffer.putInt(record + DEAL, (int) dealNumber);
+		buffer.putLong(record + START_TIME, startTime);
+		buffer.putLong(record + END_TIME, endTime);
+		buffer.putShort(record + MOVES, (short) Math.min(noOfMoves, 0xFFFF));
+		buffer.putShort(record + UNDOS, (short) Math.min(noOfUndos, 0xFFFF));
+		buffer.put(record + OUTCOME, (byte) outcome);
+		buffer.putShort(record + SOLUTION_LENGTH,
+				(short) Math.min(solutionLength, UNKNOWN_LENGTH));
+		buffer.putInt(record + PREVIOUS, head(bucket) + 1);
+
+		// Only link and count the game once it is on the disk. Pages of the
+		// file can reach the disk in any order, so each step is forced
+		// before the next (the count itself is written by flush or close)
+		buffer.force(record, RECORD_SIZE);
+		buffer.putInt(bucket, noOfGames + 1);
+		buffer.force(bucket, 4);
+		noOfGames++;
+		buffer.putInt(COUNT, noOfGames);
+		return noOfGames - 1;
+	}
+
+	/**
+	 * Finds the number of games in this GameJournal
+	 *
+	 * @return the number of games
+	 */
+	public int size()
+	{
+		return noOfGames;
+	}
+
+	/**
+	 * Finds the last game of the given deal
+	 *
+	 * @param dealNumber the Microsoft deal number
+	 * @return the index of the game, or -1 if the deal hasn't been played
+	 */
+	public int lastGameOf(long dealNumber)
+	{
+		return findDeal(head(bucket(dealNumber)), dealNumber);
+	}
+
+	/**
+	 * Finds the game of the same deal played before the given game
+	 *
+	 * @param game the index of a game
+	 * @return the index of the game before it, or -1 if there isn't one
+	 */
+	public int previousGameOf(int game)
+	{
+		return findDeal(buffer.getInt(offset(game) + PREVIOUS) - 1,
+				getDealNumber(game));
+	}
+
+	/**
+	 * Finds where the head of the bucket of a deal number is in the file
+	 *
+	 * @param dealNumber the Microsoft deal number
+	 * @return the position of the bucket head
+	 */
+	private static int bucket(long dealNumber)
+	{
+		return 16 + (int) (dealNumber & (BUCKETS - 1)) * 4;
+	}
+
+	/**
+	 * Finds the last game added to a bucket
+	 *
+	 * @param bucket the position of the bucket head
+	 * @return the index of the game, or -1 if the bucket is empty
+	 */
+	private int head(int bucket)
+	{
+		int head = buffer.getInt(bucket);
+
+		// A journal opened read only isn't repaired and the game may be
+		// adding to it, so go back past any games that aren't counted
+		while (head > noOfGames)
+		{
+			if (offset(head) > buffer.capacity())
+				return -1;
+			int previous = buffer.getInt(offset(head - 1) + PREVIOUS);
+			if (previous >= head)
+				return -1;
+			head = previous;
+		}
+
+		return head - 1;
+	}
+
+	/**
+	 * Follows the links of a bucket to the first game of the given deal
+	 *
+	 * @param game the index of the game to start at, or -1
+	 * @param dealNumber the Microsoft deal number
+	 * @return the index of the game, or -1 if there isn't one
+	 */
+	private int findDeal(int game, long dealNumber)
+	{
+		while (game >= 0 && getDealNumber(game) != dealNumber)
+			game = buffer.getInt(offset(game) + PREVIOUS) - 1;
+
+		return game;
+	}
+
+	/**
+	 * Gets the deal number of a game
+	 *
+	 * @param game the index of the game
+	 * @return the Microsoft deal number
+	 */
+	public long getDealNumber(int game)
+	{
+		return Integer.toUnsignedLong(buffer.getInt(offset(game) + DEAL));
+	}
+
+	/**
+	 * Gets the time a game started
+	 *
+	 * @param game the index of the game
+	 * @return the time in milliseconds since 1970
+	 */
+	public long getStartTime(int game)
+	{
+		return buffer.getLong(offset(game) + START_TIME);
+	}
+
+	/**
+	 * Gets the time a game ended
+	 *
+	 * @param game the index of the game
+	 * @return the time in milliseconds since 1970
+	 */
+	public long getEndTime(int game)
+	{
+		return buffer.getLong(offset(game) + END_TIME);
+	}
+
+	/**
+	 * Gets the number of moves played in a game
+	 *
+	 * @param game the index of the game
+	 * @return the number of moves
+	 */
+	public int getNoOfMoves(int game)
+	{
+		return buffer.getShort(offset(game) + MOVES) & 0xFFFF;
+	}
+
+	/**
+	 * Gets the number of moves undone in a game
+	 *
+	 * @param game the index of the game
+	 * @return the number of undos
+	 */
+	public int getNoOfUndos(int game)
+	{
+		return buffer.getShort(offset(game) + UNDOS) & 0xFFFF;
+	}
+
+	/**
+	 * Gets how a game ended
+	 *
+	 * @param game the index of the game
+	 * @return WON, GAVE_UP or QUIT
+	 */
+	public int getOutcome(int game)
+	{
+		return buffer.get(offset(game) + OUTCOME);
+	}
+
+	/**
+	 * Gets the length of the Solver's solution of the deal of a game
+	 *
+	 * @param game the index of the game
+	 * @return the number of moves, or UNKNOWN_LENGTH
+	 */
+	public int getSolutionLength(int game)
+	{
+		return buffer.getShort(offset(game) + SOLUTION_LENGTH) & 0xFFFF;
+	}
+
+	/**
+	 * Writes any games added to the disk
+	 */
+	public void flush()
+	{
+		buffer.force();
+	}
+
+	/**
+	 * Writes any games added to the disk and closes the file
+	 *
+	 * @throws IOException if the file can't be closed
+	 */
+	public void close() throws IOException
+	{
+		buffer.force();
+		file.close();
+		synchronized (openJournals)
+		{
+			openJournals.remove(path);
+		}
+	}
+
+	/**
+	 * Finds where a game is in the file
+	 *
+	 * @param game the index of the game
+	 * @return the position of the record of the game
+	 */
+	private static int offset(int game)
+	{
+		return HEADER_SIZE + game * RECORD_SIZE;
+	}
+
+	/**
+	 * Maps the file into memory, making the file bigger if needed
+	 *
+	 * @param size the number of bytes to map
+	 * @throws IOException if the file can't be mapped
+	 */
+	private void map(long size) throws IOException
+	{
+		if (readOnly)
+		{
+			buffer = file.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			return;
+		}
+
+		boolean grows = size > file.size();
+		buffer = file.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+		// The new length of the file has to be on the disk before any games
+		// past the old end are counted
+		if (grows)
+			file.force(true);
+	}
+
+	/**
+	 * Writes one game as a line of text
+	 *
+	 * @param game the index of the game
+	 * @return the game as a String
+	 */
+	private String toString(int game)
+	{
+		String[] outcomes = { "won", "gave up", "quit" };
+		String outcome = "unknown";
+		if (getOutcome(game) >= 0 && getOutcome(game) < outcomes.length)
+			outcome = outcomes[getOutcome(game)];
+		String length = "?";
+		if (getSolutionLength(game) != UNKNOWN_LENGTH)
+			length = "" + getSolutionLength(game);
+
+		return String.format("%d: #%d %s, %d moves, %d undos, %d s, "
+				+ "solution %s", game, getDealNumber(game),
+				outcome, getNoOfMoves(game),
+				getNoOfUndos(game),
+				(getEndTime(game) - getStartTime(game)) / 1000, length);
+	}
+
+	/**
+	 * Prints the games in a journal file, without changing the file: all of
+	 * them, the games of one deal (newest first) or the last N games
+	 *
+	 * @param args the name of the file, then "deal dealNumber" or "last
+	 *            noOfGames" if wanted
+	 * @throws IOException if the file can't be closed
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		if (args.length != 1 && args.length != 3)
+		{
+			System.err.println("Usage: java GameJournal journalFile "
+					+ "[deal dealNumber | last noOfGames]");
+			System.exit(1);
+		}
+
+		GameJournal journal = null;
+		try
+		{
+			journal = openReadOnly(Paths.get(args[0]));
+		}
+		catch (NoSuchFileException exp)
+		{
+			System.err.println("No game journal called " + args[0]);
+			System.exit(1);
+		}
+		catch (IOException exp)
+		{
+			System.err.println("Can't read " + args[0] + ": "
+					+ exp.getMessage());
+			System.exit(1);
+		}
+		try
+		{
+			if (args.length == 3 && args[1].equals("deal"))
+			{
+				// Newest game of the deal first
+				int game = journal.lastGameOf(Long.parseLong(args[2]));
+				while (game >= 0)
+				{
+					System.out.println(journal.toString(game));
+					game = journal.previousGameOf(game);
+				}
+			}
+			else
+			{
+				int first = 0;
+				if (args.length == 3)
+					first = Math.max(journal.size()
+							- Integer.parseInt(args[2]), 0);
+				for (int game = first; game < journal.size(); game++)
+					System.out.println(journal.toString(game));
+			}
+			System.err.println(journal.size() + " games in the journal");
+		}
+		finally
+		{
+			journal.close();
+		}
+	}
+}
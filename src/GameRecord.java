@@ -0,0 +1,206 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Keeps track of one played game: its Microsoft deal number and the
+ * MoveHistory of the moves that were played. Records are stored in a compact
+ * binary format so that every game played can be kept and checked later by a
+ * RecordVerifier. Each record is:
+ *
+ * magic number (4 bytes), version (1 byte), deal number (4 bytes, unsigned),
+ * number of moves (2 bytes, unsigned) and then the moves stored by the
+ * MoveHistory (2 bytes per move), all in big-endian order.
+ *
+ * Records can be written one after another in the same file.
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class GameRecord
+{
+	public static final int MAGIC = 0x46434752; // "FCGR"
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 11;
+	public static final int MAX_MOVES = 0xFFFF;
+
+	private long dealNumber;
+	private MoveHistory moves;
+
+	/**
+	 * Creates a new GameRecord of the moves played in the given MoveHistory
+	 *
+	 * @param dealNumber the Microsoft deal number of the game
+	 * @param history the moves of the game (only the moves played are kept,
+	 *            not any that could be redone)
+	 * @throws IllegalArgumentException if the deal number is not valid or
+	 *             there are more than MAX_MOVES moves
+	 */
+	public GameRecord(long dealNumber, MoveHistory history)
+	{
+		if (!DealGenerator.isDealNumber(dealNumber))
+			throw new IllegalArgumentException("Not a deal number: "
+					+ dealNumber);
+		if (history.size() > MAX_MOVES)
+			throw new IllegalArgumentException("Too many moves: "
+					+ history.size());
+
+		this.dealNumber = dealNumber;
+		moves = new MoveHistory();
+		for (int move = 0; move < history.size(); move++)
+			moves.add(history.get(move));
+	}
+
+	/**
+	 * Gets the deal number of the game
+	 *
+	 * @return the Microsoft deal number
+	 */
+	public long getDealNumber()
+	{
+		return dealNumber;
+	}
+
+	/**
+	 * Finds the number of moves played
+	 *
+	 * @return the number of moves
+	 */
+	public int getNoOfMoves()
+	{
+		return moves.size();
+	}
+
+	/**
+	 * Gets one of the moves played
+	 *
+	 * @param index the index of the move (0 is the first move)
+	 * @return the packed move
+	 */
+	public int getMove(int index)
+	{
+		return moves.get(index);
+	}
+
+	/**
+	 * Finds the number of bytes this GameRecord takes up when written
+	 *
+	 * @return the size in bytes
+	 */
+	public int size()
+	{
+		return HEADER_SIZE + moves.size() * 2;
+	}
+
+	/**
+	 * Writes this GameRecord into the given buffer
+	 *
+	 * @param buffer the buffer to write to (with at least size bytes left)
+	 */
+	public void write(ByteBuffer buffer)
+	{
+		buffer.putInt(MAGIC);
+		buffer.put((byte) VERSION);
+		buffer.putInt((int) dealNumber);
+		buffer.putShort((short) moves.size());
+		moves.writeTo(buffer);
+	}
+
+	/**
+	 * Writes this GameRecord into a new array of bytes
+	 *
+	 * @return the GameRecord as bytes
+	 */
+	public byte[] toByteArray()
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(size());
+		write(buffer);
+		return buffer.array();
+	}
+
+	/**
+	 * Adds this GameRecord to the end of the given file, creating the file if
+	 * it doesn't exist
+	 *
+	 * @param path the file of GameRecords
+	 * @throws IOException if the file can't be written
+	 */
+	public void appendTo(Path path) throws IOException
+	{
+		FileChannel file = FileChannel.open(path, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		try
+		{
+			ByteBuffer buffer = ByteBuffer.wrap(toByteArray());
+			while (buffer.hasRemaining())
+				file.write(buffer);
+		}
+		finally
+		{
+			file.close();
+		}
+	}
+
+	/**
+	 * Reads the next GameRecord from the given buffer
+	 *
+	 * @param buffer the buffer to read from
+	 * @return the GameRecord
+	 * @throws IOException if the buffer does not hold a valid GameRecord
+	 */
+	public static GameRecord read(ByteBuffer buffer) throws IOException
+	{
+		long dealNumber = readHeader(buffer);
+		MoveHistory moves = new MoveHistory();
+		moves.readFrom(buffer, readNoOfMoves(buffer));
+
+		try
+		{
+			return new GameRecord(dealNumber, moves);
+		}
+		catch (IllegalArgumentException exp)
+		{
+			throw new IOException(exp.getMessage());
+		}
+	}
+
+	/**
+	 * Reads the magic number, version and deal number of the next GameRecord
+	 * from the given buffer
+	 *
+	 * @param buffer the buffer to read from
+	 * @return the deal number
+	 * @throws IOException if the buffer doesn't start with a GameRecord
+	 */
+	static long readHeader(ByteBuffer buffer) throws IOException
+	{
+		if (buffer.remaining() < HEADER_SIZE)
+			throw new IOException("Game record is cut off");
+		if (buffer.getInt() != MAGIC)
+			throw new IOException("Not a game record");
+		int version = buffer.get() & 0xFF;
+		if (version != VERSION)
+			throw new IOException("Unknown game record version " + version);
+
+		return Integer.toUnsignedLong(buffer.getInt());
+	}
+
+	/**
+	 * Reads the number of moves of a GameRecord after its header, leaving the
+	 * buffer at the first move
+	 *
+	 * @param buffer the buffer to read from
+	 * @return the number of moves
+	 * @throws IOException if the buffer doesn't have all of the moves
+	 */
+	static int readNoOfMoves(ByteBuffer buffer) throws IOException
+	{
+		int noOfMoves = buffer.getShort() & 0xFFFF;
+		if (buffer.remaining() < noOfMoves * 2)
+			throw new IOException("Game record is cut off");
+
+		return noOfMoves;
+	}
+}
@@ -0,0 +1,910 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Keeps track of a game of FreeCell without any graphics so that games can be
+ * played, checked and searched without a CardPanel, GCards or images. Cards
+ * are stored as card codes from 0 to 51 (see code) in a single byte array of a
+ * few hundred bytes that is cheap to copy, and can be packed into an even
+ * smaller immutable PackedState. Each GameState also keeps a 64-bit Zobrist
+ * hash that is updated in O(1) per move (see getHash). The piles are numbered
+ * in the same order as the GHands in the CardPanel: Cascades 0 - 7, FreeCells
+ * 8 - 11 and Foundations 12 - 15. A move is packed into a single int (see
+ * encodeMove). Includes methods to deal a new game, look at the piles, check if
+ * a Card or a move can be placed, find the largest number of Cards that can be
+ * moved at once (using the number of empty FreeCells and Cascades that each
+ * GameState keeps track of for itself), generate all of the legal moves, apply
+ * and undo a move and check if the game has been won.
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class GameState
+{
+	// Layout of the piles (same order as the GHands in the CardPanel)
+	public static final int NO_OF_CASCADES = 8;
+	public static final int NO_OF_FREECELLS = 4;
+	public static final int NO_OF_FOUNDATIONS = 4;
+	public static final int FIRST_FREECELL = NO_OF_CASCADES;
+	public static final int FIRST_FOUNDATION = FIRST_FREECELL + NO_OF_FREECELLS;
+	public static final int NO_OF_PILES = FIRST_FOUNDATION + NO_OF_FOUNDATIONS;
+
+	// The most legal moves there can be in any one position
+	public static final int MAX_MOVES = 256;
+
+	// Layout of the Cards array: the size of each pile followed by the Cards
+	// in each pile from the bottom up (no Cascade can ever hold more than 19
+	// Cards: 7 dealt Cards and then a Queen down to an Ace)
+	public static final int CASCADE_CAPACITY = 19;
+	private static final int[] START = new int[NO_OF_PILES];
+	private static final int LENGTH;
+
+	static
+	{
+		int start = NO_OF_PILES;
+		for (int pile = 0; pile < NO_OF_PILES; pile++)
+		{
+			START[pile] = start;
+			if (isCascade(pile))
+				start += CASCADE_CAPACITY;
+			else if (isFreeCell(pile))
+				start += 1;
+			else
+				start += 13;
+		}
+		LENGTH = start;
+	}
+
+	// Zobrist keys for each Card sitting on each thing it can sit on: another
+	// Card (0 - 51), the bottom of a Cascade, a FreeCell or a Foundation. Only
+	// the bottom Card of a move changes what it sits on, and the order of the
+	// piles does not matter
+	private static final int ON_CASCADE = 52;
+	private static final int ON_FREECELL = 53;
+	private static final int ON_FOUNDATION = 54;
+	private static final long[] ZOBRIST = new long[52 * 55];
+
+	static
+	{
+		SplittableRandom random = new SplittableRandom(20141129);
+		for (int key = 0; key < ZOBRIST.length; key++)
+			ZOBRIST[key] = random.nextLong();
+	}
+
+	private byte[] cards;
+	private int noOfFreeCells;
+	private int noOfOpenCascades;
+	private long hash;
+
+	/**
+	 * Creates a new GameState with all of the piles empty
+	 */
+	public GameState()
+	{
+		cards = new byte[LENGTH];
+		noOfFreeCells = NO_OF_FREECELLS;
+		noOfOpenCascades = NO_OF_CASCADES;
+	}
+
+	/**
+	 * Creates a copy of the given GameState
+	 *
+	 * @param other the GameState to copy
+	 */
+	public GameState(GameState other)
+	{
+		cards = other.cards.clone();
+		noOfFreeCells = other.noOfFreeCells;
+		noOfOpenCascades = other.noOfOpenCascades;
+		hash = other.hash;
+	}
+
+	/**
+	 * Creates a GameState from the given PackedState
+	 *
+	 * @param packed the PackedState to unpack
+	 */
+	public GameState(PackedState packed)
+	{
+		this();
+		unpack(packed);
+	}
+
+	/**
+	 * Starts a new game by clearing all of the piles and dealing the given
+	 * Cards to the Cascades (the first Card goes to the first Cascade, the
+	 * second Card to the second Cascade and so on)
+	 *
+	 * @param dealtCards the card codes in the order they are dealt
+	 */
+	public void deal(int[] dealtCards)
+	{
+		clear();
+
+		for (int card = 0; card < dealtCards.length; card++)
+			push(card % NO_OF_CASCADES, dealtCards[card]);
+	}
+
+	/**
+	 * Empties all of the piles
+	 */
+	public void clear()
+	{
+		for (int pile = 0; pile < NO_OF_PILES; pile++)
+			cards[pile] = 0;
+		noOfFreeCells = NO_OF_FREECELLS;
+		noOfOpenCascades = NO_OF_CASCADES;
+		hash = 0;
+	}
+
+	/**
+	 * Gets the Zobrist hash of this GameState. Positions that only differ by
+	 * the order of their Cascades, FreeCells or Foundations have the same
+	 * hash, so it can be used as the key of a position in a search (the chance
+	 * of two different positions having the same 64-bit hash is tiny)
+	 *
+	 * @return the Zobrist hash
+	 */
+	public long getHash()
+	{
+		return hash;
+	}
+
+	/**
+	 * Adds a Card to the top of the given pile without checking the rules (for
+	 * setting up a position)
+	 *
+	 * @param pile the pile to add to
+	 * @param card the card code to add
+	 */
+	public void addCard(int pile, int card)
+	{
+		push(pile, card);
+	}
+
+	/**
+	 * Packs this GameState into a PackedState keeping every pile where it is
+	 *
+	 * @return the packed GameState
+	 */
+	public PackedState pack()
+	{
+		return new PackedState(packBytes(false));
+	}
+
+	/**
+	 * Packs this GameState into a PackedState that does not depend on the
+	 * order of the piles (the Foundations are stored by suit and the FreeCells
+	 * and Cascades are sorted), so that two positions that only differ by the
+	 * order of their piles pack into equal PackedStates
+	 *
+	 * @return the packed GameState
+	 */
+	public PackedState packCanonical()
+	{
+		return new PackedState(packBytes(true));
+	}
+
+	/**
+	 * Replaces the piles of this GameState with the piles of the given
+	 * PackedState
+	 *
+	 * @param packed the PackedState to unpack
+	 */
+	public void unpack(PackedState packed)
+	{
+		clear();
+
+		// Fill each Foundation up to its top Card
+		for (int foundation = 0; foundation < NO_OF_FOUNDATIONS; foundation++)
+		{
+			int topCard = packed.get(foundation) - 1;
+			for (int rank = 1; topCard >= 0 && rank <= rank(topCard); rank++)
+				push(FIRST_FOUNDATION + foundation, code(rank, suit(topCard)));
+		}
+
+		int index = NO_OF_FOUNDATIONS;
+		for (int pile = FIRST_FREECELL; pile < FIRST_FOUNDATION; pile++)
+		{
+			int card = packed.get(index++);
+			if (card != 0)
+				push(pile, card - 1);
+		}
+
+		// Each Cascade ends with a 0
+		for (int pile = 0; pile < NO_OF_CASCADES; pile++)
+			for (int card = packed.get(index++); card != 0; card = packed
+					.get(index++))
+				push(pile, card - 1);
+	}
+
+	/**
+	 * Finds the card code of a Card given its rank and suit
+	 *
+	 * @param rank the rank of the Card (Ace - 1 to King - 13)
+	 * @param suit the suit of the Card (Clubs - 1 to Spades - 4)
+	 * @return the card code from 0 to 51
+	 */
+	public static int code(int rank, int suit)
+	{
+		return (rank - 1) * 4 + suit - 1;
+	}
+
+	/**
+	 * Finds the rank of the given card code
+	 *
+	 * @param card the card code
+	 * @return the rank of the Card (Ace - 1 to King - 13)
+	 */
+	public static int rank(int card)
+	{
+		return card / 4 + 1;
+	}
+
+	/**
+	 * Finds the suit of the given card code
+	 *
+	 * @param card the card code
+	 * @return the suit of the Card (Clubs - 1 to Spades - 4)
+	 */
+	public static int suit(int card)
+	{
+		return card % 4 + 1;
+	}
+
+	/**
+	 * Checks if the given card code is a red Card (Diamonds or Hearts)
+	 *
+	 * @param card the card code
+	 * @return true if the Card is red, false if it is black
+	 */
+	public static boolean isRed(int card)
+	{
+		return Card.isRed(card);
+	}
+
+	/**
+	 * Checks if a Card can be placed on another Card in a Cascade
+	 *
+	 * @param card the card code of the Card to place
+	 * @param otherCard the card code of the top Card of the Cascade
+	 * @return true if the Cards are opposite colours and the other Card is one
+	 *         rank higher than this Card, false if not
+	 */
+	public static boolean canStack(int card, int otherCard)
+	{
+		return Card.canPlaceOnCascade(card, otherCard);
+	}
+
+	/**
+	 * Returns the given card code as a String in the form of RANKSUIT
+	 *
+	 * @param card the card code
+	 * @return the Card as a String
+	 */
+	public static String toString(int card)
+	{
+		return Card.toString(card);
+	}
+
+	/**
+	 * Packs a move into an int
+	 *
+	 * @param from the pile the Cards are moved from
+	 * @param to the pile the Cards are moved to
+	 * @param count the number of Cards moved
+	 * @return the move packed into an int
+	 */
+	public static int encodeMove(int from, int to, int count)
+	{
+		return from | to << 4 | count << 8;
+	}
+
+	/**
+	 * Finds the pile a packed move takes its Cards from
+	 *
+	 * @param move the packed move
+	 * @return the pile the Cards are moved from
+	 */
+	public static int moveFrom(int move)
+	{
+		return move & 0xF;
+	}
+
+	/**
+	 * Finds the pile a packed move places its Cards on
+	 *
+	 * @param move the packed move
+	 * @return the pile the Cards are moved to
+	 */
+	public static int moveTo(int move)
+	{
+		return move >>> 4 & 0xF;
+	}
+
+	/**
+	 * Finds the number of Cards moved by a packed move
+	 *
+	 * @param move the packed move
+	 * @return the number of Cards moved
+	 */
+	public static int moveCount(int move)
+	{
+		return move >>> 8;
+	}
+
+	/**
+	 * Returns a packed move as a String (ex. 3>9x1)
+	 *
+	 * @param move the packed move
+	 * @return the move as a String
+	 */
+	public static String moveToString(int move)
+	{
+		return moveFrom(move) + ">" + moveTo(move) + "x" + moveCount(move);
+	}
+
+	/**
+	 * Checks if the given pile is a Cascade
+	 *
+	 * @param pile the pile to check
+	 * @return true if the pile is a Cascade, false if not
+	 */
+	public static boolean isCascade(int pile)
+	{
+		return pile < FIRST_FREECELL;
+	}
+
+	/**
+	 * Checks if the given pile is a FreeCell
+	 *
+	 * @param pile the pile to check
+	 * @return true if the pile is a FreeCell, false if not
+	 */
+	public static boolean isFreeCell(int pile)
+	{
+		return pile >= FIRST_FREECELL && pile < FIRST_FOUNDATION;
+	}
+
+	/**
+	 * Checks if the given pile is a Foundation
+	 *
+	 * @param pile the pile to check
+	 * @return true if the pile is a Foundation, false if not
+	 */
+	public static boolean isFoundation(int pile)
+	{
+		return pile >= FIRST_FOUNDATION;
+	}
+
+	/**
+	 * Finds the number of Cards left in the given pile
+	 *
+	 * @param pile the pile to check
+	 * @return the number of Cards in the pile
+	 */
+	public int cardsLeft(int pile)
+	{
+		return cards[pile];
+	}
+
+	/**
+	 * Looks at a Card in the given pile
+	 *
+	 * @param pile the pile to look at
+	 * @param index the index of the Card (0 is the bottom Card)
+	 * @return the card code of the Card
+	 */
+	public int getCard(int pile, int index)
+	{
+		return cards[START[pile] + index];
+	}
+
+	/**
+	 * Looks at the top Card in the given pile
+	 *
+	 * @param pile the pile to look at
+	 * @return the card code of the top Card, -1 if the pile is empty
+	 */
+	public int getTopCard(int pile)
+	{
+		if (cards[pile] == 0)
+			return -1;
+
+		return cards[START[pile] + cards[pile] - 1];
+	}
+
+	/**
+	 * Finds the number of empty FreeCells
+	 *
+	 * @return the number of empty FreeCells
+	 */
+	public int getNoOfFreeCells()
+	{
+		return noOfFreeCells;
+	}
+
+	/**
+	 * Finds the number of empty Cascades
+	 *
+	 * @return the number of empty Cascades
+	 */
+	public int getNoOfOpenCascades()
+	{
+		return noOfOpenCascades;
+	}
+
+	/**
+	 * Finds the number of Cards that have been placed on the Foundations
+	 *
+	 * @return the number of Cards on the Foundations
+	 */
+	public int getFoundationCards()
+	{
+		int total = 0;
+		for (int pile = FIRST_FOUNDATION; pile < NO_OF_PILES; pile++)
+			total += cards[pile];
+
+		return total;
+	}
+
+	/**
+	 * Calculates the maximum number of Cards that can be moved at once onto
+	 * the given Cascade using the empty FreeCells and Cascades (a supermove)
+	 *
+	 * @param to the Cascade the Cards are moved to
+	 * @return the maximum number of Cards that can be moved at once
+	 */
+	public int maxMovable(int to)
+	{
+		int openCascades = noOfOpenCascades;
+
+		// Do not count the Cascade you are moving to as an open Cascade
+		if (cards[to] == 0)
+			openCascades--;
+
+		return (noOfFreeCells + 1) << openCascades;
+	}
+
+	/**
+	 * Checks if the given number of Cards starting with the given Card can be
+	 * placed on the given pile
+	 *
+	 * @param card the card code of the bottom Card being placed
+	 * @param count the number of Cards being placed
+	 * @param to the pile to place the Cards on
+	 * @return true if the Cards can be placed on the pile, false if not
+	 */
+	public boolean canPlace(int card, int count, int to)
+	{
+		int otherCard = getTopCard(to);
+
+		// Only single Cards can go on a FreeCell or a Foundation
+		if (isFreeCell(to))
+			return count == 1 && otherCard < 0;
+
+		if (isFoundation(to))
+		{
+			if (count != 1)
+				return false;
+
+			// Only Aces can go on an empty Foundation
+			if (otherCard < 0)
+				return rank(card) == 1;
+
+			return suit(card) == suit(otherCard)
+					&& rank(card) - rank(otherCard) == 1;
+		}
+
+		// The pile is a Cascade
+		if (count > maxMovable(to))
+			return false;
+
+		return otherCard < 0 || canStack(card, otherCard);
+	}
+
+	/**
+	 * Checks if the given packed move is legal in this GameState
+	 *
+	 * @param move the packed move
+	 * @return true if the move is legal, false if not
+	 */
+	public boolean isLegal(int move)
+	{
+		int from = moveFrom(move);
+		int to = moveTo(move);
+		int count = moveCount(move);
+
+		// Cards cannot be taken off a Foundation
+		if (from == to || isFoundation(from) || to >= NO_OF_PILES || count < 1
+				|| count > cards[from])
+			return false;
+
+		// More than one Card can only be moved from a Cascade and the Cards
+		// must be in order
+		if (count > 1)
+		{
+			if (!isCascade(from))
+				return false;
+
+			int top = START[from] + cards[from] - 1;
+			for (int card = top; card > top - count + 1; card--)
+				if (!canStack(cards[card], cards[card - 1]))
+					return false;
+		}
+
+		return canPlace(cards[START[from] + cards[from] - count], count, to);
+	}
+
+	/**
+	 * Applies the given packed move to this GameState
+	 *
+	 * @param move the packed move
+	 *
+	 *            Precondition: isLegal is called before apply to ensure that
+	 *            the move is valid
+	 */
+	public void apply(int move)
+	{
+		transfer(moveFrom(move), moveTo(move), moveCount(move));
+	}
+
+	/**
+	 * Undoes the given packed move, which must be the last move applied to
+	 * this GameState
+	 *
+	 * @param move the packed move
+	 */
+	public void undo(int move)
+	{
+		transfer(moveTo(move), moveFrom(move), moveCount(move));
+	}
+
+	/**
+	 * Finds all of the legal moves in this GameState. Moves that lead to the
+	 * same position as another move (ex. to a different empty FreeCell or
+	 * moving a whole Cascade to an empty Cascade) are left out.
+	 *
+	 * @param moves the array to store the packed moves in (at least MAX_MOVES
+	 *            long)
+	 * @return the number of legal moves found
+	 */
+	public int legalMoves(int[] moves)
+	{
+		int noOfMoves = 0;
+
+		// Find the first empty FreeCell and Cascade
+		int emptyFreeCell = -1;
+		for (int pile = FIRST_FREECELL; pile < FIRST_FOUNDATION
+				&& emptyFreeCell < 0; pile++)
+			if (cards[pile] == 0)
+				emptyFreeCell = pile;
+
+		int emptyCascade = -1;
+		for (int pile = 0; pile < NO_OF_CASCADES && emptyCascade < 0; pile++)
+			if (cards[pile] == 0)
+				emptyCascade = pile;
+
+		for (int from = 0; from < FIRST_FOUNDATION; from++)
+		{
+			int size = cards[from];
+			if (size == 0)
+				continue;
+
+			int start = START[from];
+			int topCard = cards[start + size - 1];
+
+			// Move the top Card to a Foundation
+			for (int to = FIRST_FOUNDATION; to < NO_OF_PILES; to++)
+				if (canPlace(topCard, 1, to))
+				{
+					moves[noOfMoves++] = encodeMove(from, to, 1);
+					break;
+				}
+
+			// Move the top Card of a Cascade to a FreeCell
+			if (isCascade(from) && emptyFreeCell >= 0)
+				moves[noOfMoves++] = encodeMove(from, emptyFreeCell, 1);
+
+			// Find how many Cards are in order on top of this pile
+			int inOrder = 1;
+			if (isCascade(from))
+				while (inOrder < size
+						&& canStack(cards[start + size - inOrder],
+								cards[start + size - inOrder - 1]))
+					inOrder++;
+
+			// Move Cards onto the other Cascades
+			for (int to = 0; to < NO_OF_CASCADES; to++)
+			{
+				if (to == from)
+					continue;
+
+				if (cards[to] == 0)
+				{
+					if (to != emptyCascade)
+						continue;
+
+					// Moving a whole Cascade to an empty Cascade does nothing
+					int maxCards = Math.min(inOrder, maxMovable(to));
+					if (isCascade(from) && maxCards == size)
+						maxCards--;
+
+					for (int count = 1; count <= maxCards; count++)
+						moves[noOfMoves++] = encodeMove(from, to, count);
+				}
+				else
+				{
+					// Only one number of Cards can fit on the top Card
+					int count = rank(getTopCard(to)) - rank(topCard);
+					if (count >= 1 && count <= inOrder
+							&& canPlace(cards[start + size - count], count, to))
+						moves[noOfMoves++] = encodeMove(from, to, count);
+				}
+			}
+		}
+
+		return noOfMoves;
+	}
+
+	/**
+	 * Checks to see if the game has been won by completing all of the
+	 * Foundations
+	 *
+	 * @return true if the game has been won, false if not
+	 */
+	public boolean isWon()
+	{
+		return getFoundationCards() == 52;
+	}
+
+	/**
+	 * Checks if this GameState has exactly the same Cards in each pile as the
+	 * given Object
+	 *
+	 * @param other the Object to compare
+	 * @return true if the other Object is the same position, false if not
+	 */
+	public boolean equals(Object other)
+	{
+		if (!(other instanceof GameState))
+			return false;
+
+		byte[] otherCards = ((GameState) other).cards;
+		for (int pile = 0; pile < NO_OF_PILES; pile++)
+			if (cards[pile] != otherCards[pile]
+					|| !Arrays.equals(cards, START[pile], START[pile]
+							+ cards[pile], otherCards, START[pile],
+							START[pile] + cards[pile]))
+				return false;
+
+		return true;
+	}
+
+	/**
+	 * Returns the hash code of this GameState using only the Cards in the
+	 * piles
+	 *
+	 * @return the hash code of this GameState
+	 */
+	public int hashCode()
+	{
+		int hash = 1;
+		for (int pile = 0; pile < NO_OF_PILES; pile++)
+		{
+			int end = START[pile] + cards[pile];
+			hash = 31 * hash + cards[pile];
+			for (int card = START[pile]; card < end; card++)
+				hash = 31 * hash + cards[card];
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Returns this GameState as a String with the Foundations and FreeCells
+	 * on the first two lines and then each Cascade on its own line
+	 *
+	 * @return the GameState as a String
+	 */
+	public String toString()
+	{
+		StringBuilder str = new StringBuilder(256);
+		str.append(pileToString(FIRST_FOUNDATION, NO_OF_PILES)).append('\n');
+		str.append(pileToString(FIRST_FREECELL, FIRST_FOUNDATION)).append('\n');
+
+		for (int pile = 0; pile < NO_OF_CASCADES; pile++)
+		{
+			str.append(':');
+			for (int card = 0; card < cards[pile]; card++)
+				str.append(' ').append(toString(cards[START[pile] + card]));
+			str.append('\n');
+		}
+
+		return str.toString();
+	}
+
+	/**
+	 * Returns the top Cards of the given range of piles as a String, with a
+	 * dash for each empty pile
+	 *
+	 * @param first the first pile
+	 * @param last one past the last pile
+	 * @return the top Cards as a String
+	 */
+	private String pileToString(int first, int last)
+	{
+		StringBuilder str = new StringBuilder(12);
+		for (int pile = first; pile < last; pile++)
+		{
+			if (pile > first)
+				str.append(' ');
+			if (cards[pile] == 0)
+				str.append('-');
+			else
+				str.append(toString(getTopCard(pile)));
+		}
+
+		return str.toString();
+	}
+
+	/**
+	 * Packs the piles into the byte layout of a PackedState
+	 *
+	 * @param canonical true to store the Foundations by suit and sort the
+	 *            FreeCells and Cascades, false to keep every pile in place
+	 * @return the packed bytes
+	 */
+	private byte[] packBytes(boolean canonical)
+	{
+		byte[] data = new byte[PackedState.LENGTH];
+
+		// Foundations (by suit for a canonical PackedState)
+		for (int foundation = 0; foundation < NO_OF_FOUNDATIONS; foundation++)
+		{
+			int topCard = getTopCard(FIRST_FOUNDATION + foundation);
+			if (topCard >= 0 && canonical)
+				data[suit(topCard) - 1] = (byte) (topCard + 1);
+			else if (topCard >= 0)
+				data[foundation] = (byte) (topCard + 1);
+		}
+
+		// FreeCells (highest Card first for a canonical PackedState)
+		int index = NO_OF_FOUNDATIONS;
+		for (int pile = FIRST_FREECELL; pile < FIRST_FOUNDATION; pile++)
+		{
+			byte card = (byte) (getTopCard(pile) + 1);
+			int insert = index++;
+			while (canonical && insert > NO_OF_FOUNDATIONS
+					&& data[insert - 1] < card)
+			{
+				data[insert] = data[insert - 1];
+				insert--;
+			}
+			data[insert] = card;
+		}
+
+		// Cascades (by bottom Card with the empty Cascades last for a
+		// canonical PackedState)
+		int[] order = new int[NO_OF_CASCADES];
+		for (int pile = 0; pile < NO_OF_CASCADES; pile++)
+		{
+			int insert = pile;
+			while (canonical && insert > 0
+					&& bottomKey(order[insert - 1]) > bottomKey(pile))
+			{
+				order[insert] = order[insert - 1];
+				insert--;
+			}
+			order[insert] = pile;
+		}
+
+		for (int pile : order)
+		{
+			System.arraycopy(cards, START[pile], data, index, cards[pile]);
+			for (int card = index; card < index + cards[pile]; card++)
+				data[card]++;
+			index += cards[pile] + 1;
+		}
+
+		return data;
+	}
+
+	/**
+	 * Finds the sorting key of a Cascade for a canonical PackedState
+	 *
+	 * @param pile the Cascade
+	 * @return the card code of the bottom Card, or 52 if the Cascade is empty
+	 */
+	private int bottomKey(int pile)
+	{
+		if (cards[pile] == 0)
+			return 52;
+
+		return cards[START[pile]];
+	}
+
+	/**
+	 * Moves the given number of Cards from the top of one pile to another
+	 * keeping them in the same order and updates the number of empty
+	 * FreeCells and Cascades
+	 *
+	 * @param from the pile to take the Cards from
+	 * @param to the pile to place the Cards on
+	 * @param count the number of Cards to move
+	 */
+	private void transfer(int from, int to, int count)
+	{
+		// Only the bottom Card moved changes what it is sitting on
+		int bottom = cards[from] - count;
+		int card = cards[START[from] + bottom];
+		hash ^= ZOBRIST[card * 55 + sittingOn(from, bottom)]
+				^ ZOBRIST[card * 55 + sittingOn(to, cards[to])];
+
+		cards[from] -= count;
+		System.arraycopy(cards, START[from] + cards[from], cards, START[to]
+				+ cards[to], count);
+
+		// The pile being moved to will become non-empty
+		if (cards[to] == 0)
+			changeEmptyPiles(to, -1);
+		cards[to] += count;
+
+		// The pile being moved from has become empty
+		if (cards[from] == 0)
+			changeEmptyPiles(from, 1);
+	}
+
+	/**
+	 * Changes the number of empty FreeCells or Cascades when the given pile
+	 * becomes empty or non-empty
+	 *
+	 * @param pile the pile that has changed
+	 * @param change 1 if the pile has become empty, -1 if it has become
+	 *            non-empty
+	 */
+	private void changeEmptyPiles(int pile, int change)
+	{
+		if (isCascade(pile))
+			noOfOpenCascades += change;
+		else if (isFreeCell(pile))
+			noOfFreeCells += change;
+	}
+
+	/**
+	 * Adds a Card to the top of the given pile
+	 *
+	 * @param pile the pile to add to
+	 * @param card the card code to add
+	 */
+	private void push(int pile, int card)
+	{
+		hash ^= ZOBRIST[card * 55 + sittingOn(pile, cards[pile])];
+		if (cards[pile] == 0)
+			changeEmptyPiles(pile, -1);
+		cards[START[pile] + cards[pile]++] = (byte) card;
+	}
+
+	/**
+	 * Finds what a Card at the given index of a pile is sitting on for the
+	 * Zobrist hash
+	 *
+	 * @param pile the pile
+	 * @param index the index of the Card in the pile
+	 * @return the card code of the Card underneath, or ON_CASCADE, ON_FREECELL
+	 *         or ON_FOUNDATION
+	 */
+	private int sittingOn(int pile, int index)
+	{
+		if (isFoundation(pile))
+			return ON_FOUNDATION;
+
+		if (isFreeCell(pile))
+			return ON_FREECELL;
+
+		if (index == 0)
+			return ON_CASCADE;
+
+		return cards[START[pile] + index - 1];
+	}
+}
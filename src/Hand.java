@@ -1,6 +1,5 @@
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Scanner;
 
 /**
  * A Hand class that stores the Cards in the Hand. Can construct a Hand given no
@@ -29,20 +28,37 @@ public class Hand
 	/**
 	 * Creates a Hew hand using the given Cards in the form of a String
 	 * 
-	 * @param hand the Cards in the form of a String
+	 * @param hand the Cards in the form of a String separated by whitespace
+	 *            (ex. KS 2H 9D)
+	 * @throws IllegalArgumentException if any of the Cards isn't a Card
 	 */
 	public Hand(String hand)
 	{
 		this.hand = new ArrayList<Card>(hand.length() / 3 + 1);
 
-		Scanner sc = new Scanner(hand);
-
-		while (sc.hasNext())
+		int index = 0;
+		while (index < hand.length())
 		{
-			this.hand.add(new Card(sc.next()));
+			// Skip to the start of the next Card
+			if (Character.isWhitespace(hand.charAt(index)))
+			{
+				index++;
+				continue;
+			}
+
+			// Each Card is exactly 2 characters followed by whitespace
+			int card = -1;
+			if (index + 1 < hand.length()
+					&& (index + 2 == hand.length() || Character
+							.isWhitespace(hand.charAt(index + 2))))
+				card = Card.indexOf(hand.charAt(index), hand.charAt(index + 1));
+			if (card < 0)
+				throw new IllegalArgumentException("Not a card at " + index
+						+ ": " + hand);
+
+			this.hand.add(Card.valueOf(card));
+			index += 2;
 		}
-
-		sc.close();
 	}
 
 	/**
@@ -0,0 +1,98 @@
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the GHand at a point of the table in O(1) without creating any
+ * objects, for hit testing on every mouse event. The table is split into a
+ * grid of square cells and each cell keeps a bit for every GHand that could
+ * cover it. A Hand with spaced out Cards (ex. a Cascade) could grow to the
+ * bottom of the table, so it is marked in every cell down to the bottom.
+ * Since the cells cover the largest area each Hand could ever take up, the
+ * grid only needs to be built again if a Hand is moved, not when Cards are
+ * added or removed. The exact check is then made against the current size
+ * of each Hand in the cell.
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class HandGrid
+{
+	private static final int CELL_SIZE = 16;
+
+	private GHand[] hands;
+	private int width;
+	private int height;
+	private int columns;
+	private int[] cells;
+
+	/**
+	 * Creates a new HandGrid
+	 *
+	 * @param hands the GHands on the table (at most 32)
+	 * @param width the width of the table
+	 * @param height the height of the table
+	 */
+	public HandGrid(List<GHand> hands, int width, int height)
+	{
+		if (hands.size() > 32)
+			throw new IllegalArgumentException("Too many hands: "
+					+ hands.size());
+
+		this.hands = hands.toArray(new GHand[hands.size()]);
+		this.width = width;
+		this.height = height;
+		columns = (width + CELL_SIZE - 1) / CELL_SIZE;
+		cells = new int[columns * ((height + CELL_SIZE - 1) / CELL_SIZE)];
+		update();
+	}
+
+	/**
+	 * Marks the cells each GHand could cover, called again if any of the
+	 * GHands are moved
+	 */
+	public void update()
+	{
+		Arrays.fill(cells, 0);
+		for (int hand = 0; hand < hands.length; hand++)
+		{
+			Point position = hands[hand].getPosition();
+			int left = Math.max(position.x, 0);
+			int top = Math.max(position.y, 0);
+			int right = Math.min(position.x + GCard.WIDTH, width) - 1;
+			int bottom = Math.min(position.y + GCard.HEIGHT, height) - 1;
+			if (hands[hand].getSpacing() > 0)
+				bottom = height - 1;
+
+			for (int row = top / CELL_SIZE; row <= bottom / CELL_SIZE; row++)
+				for (int column = left / CELL_SIZE; column <= right
+						/ CELL_SIZE; column++)
+					cells[row * columns + column] |= 1 << hand;
+		}
+	}
+
+	/**
+	 * Finds the GHand at the given point
+	 *
+	 * @param x the x position of the point
+	 * @param y the y position of the point
+	 * @return the GHand that contains the point, or null if there isn't one
+	 */
+	public GHand handAt(int x, int y)
+	{
+		if (x < 0 || y < 0 || x >= width || y >= height)
+			return null;
+
+		// Check the few Hands that could cover this cell
+		int mask = cells[y / CELL_SIZE * columns + x / CELL_SIZE];
+		while (mask != 0)
+		{
+			GHand hand = hands[Integer.numberOfTrailingZeros(mask)];
+			if (hand.contains(x, y))
+				return hand;
+			mask &= mask - 1;
+		}
+
+		return null;
+	}
+}
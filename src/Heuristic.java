@@ -0,0 +1,18 @@
+/**
+ * Behaviour for a Heuristic that guides the Solver by estimating how far a
+ * GameState is from being won
+ * 
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public interface Heuristic
+{
+	/**
+	 * Estimates how far the given GameState is from being won. The Solver
+	 * searches the GameStates with the lowest estimates first
+	 * 
+	 * @param state the GameState to estimate
+	 * @return the estimate (0 or more, lower is closer to being won)
+	 */
+	public int evaluate(GameState state);
+}
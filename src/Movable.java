@@ -1,5 +1,6 @@
 import java.awt.Graphics;
 import java.awt.Point;
+import java.awt.Rectangle;
 
 /**
  * Behaviour for a Movable object (GCard or Tableau)
@@ -28,6 +29,13 @@ public interface Movable
 	 */
 	public boolean contains(Point point);
 
+	/**
+	 * Returns the outlining Rectangle of this object (the area to repaint
+	 * when it moves)
+	 * @return the outlining Rectangle of this object
+	 */
+	public Rectangle getRectangle();
+
 	/**
 	 * Checks to see if this object intersects the given GHand
 	 * @param otherHand the GHand to check for intersection
@@ -0,0 +1,170 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Keeps track of the moves of a game for undo and redo. Each move is packed
+ * into an int (see GameState.encodeMove) and stored in a growable array, with
+ * a cursor at the end of the moves that have been played. Undoing a move
+ * moves the cursor back and redoing a move moves it forward again, both in
+ * O(1). Playing a new move after undoing throws away the moves that could
+ * have been redone.
+ *
+ * The moves played can be stored in 2 bytes each (the pile the Cards came
+ * from and the pile they went to in the first byte and the number of Cards
+ * moved in the second), so even a long game is only a few hundred bytes.
+ * This is how the moves are stored in a GameRecord.
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class MoveHistory
+{
+	private static final int INITIAL_CAPACITY = 128;
+
+	private int[] moves;
+	private int size;
+	private int cursor;
+
+	/**
+	 * Creates an empty MoveHistory
+	 */
+	public MoveHistory()
+	{
+		moves = new int[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Adds a move that has just been played, throwing away any moves that
+	 * could have been redone
+	 *
+	 * @param move the packed move
+	 */
+	public void add(int move)
+	{
+		if (cursor == moves.length)
+			moves = Arrays.copyOf(moves, moves.length * 2);
+
+		moves[cursor++] = move;
+		size = cursor;
+	}
+
+	/**
+	 * Checks if there is a move to undo
+	 *
+	 * @return true if a move has been played, false if not
+	 */
+	public boolean canUndo()
+	{
+		return cursor > 0;
+	}
+
+	/**
+	 * Takes back the last move played
+	 *
+	 * Precondition: canUndo is true
+	 *
+	 * @return the packed move to undo
+	 */
+	public int undo()
+	{
+		return moves[--cursor];
+	}
+
+	/**
+	 * Checks if there is a move to redo
+	 *
+	 * @return true if a move has been undone since the last new move, false if
+	 *         not
+	 */
+	public boolean canRedo()
+	{
+		return cursor < size;
+	}
+
+	/**
+	 * Plays the last move undone again
+	 *
+	 * Precondition: canRedo is true
+	 *
+	 * @return the packed move to redo
+	 */
+	public int redo()
+	{
+		return moves[cursor++];
+	}
+
+	/**
+	 * Removes all of the moves
+	 */
+	public void clear()
+	{
+		size = 0;
+		cursor = 0;
+	}
+
+	/**
+	 * Finds the number of moves played (not counting any moves that could be
+	 * redone)
+	 *
+	 * @return the number of moves played
+	 */
+	public int size()
+	{
+		return cursor;
+	}
+
+	/**
+	 * Gets one of the moves played
+	 *
+	 * @param index the index of the move (0 is the first move)
+	 * @return the packed move
+	 */
+	public int get(int index)
+	{
+		return moves[index];
+	}
+
+	/**
+	 * Stores the moves played in 2 bytes each (see above)
+	 *
+	 * @param buffer the buffer to write to (with at least 2 bytes left for
+	 *            each move played)
+	 */
+	public void writeTo(ByteBuffer buffer)
+	{
+		for (int move = 0; move < cursor; move++)
+		{
+			int from = GameState.moveFrom(moves[move]);
+			int to = GameState.moveTo(moves[move]);
+			buffer.put((byte) (from << 4 | to));
+			buffer.put((byte) GameState.moveCount(moves[move]));
+		}
+	}
+
+	/**
+	 * Replaces the moves with the moves stored by writeTo
+	 *
+	 * @param buffer the buffer to read from
+	 * @param noOfMoves the number of moves stored
+	 */
+	public void readFrom(ByteBuffer buffer, int noOfMoves)
+	{
+		clear();
+		for (int move = 0; move < noOfMoves; move++)
+			add(readMove(buffer));
+	}
+
+	/**
+	 * Reads one move stored by writeTo, so that stored moves can be checked
+	 * one at a time without a MoveHistory
+	 *
+	 * @param buffer the buffer to read from
+	 * @return the packed move
+	 */
+	public static int readMove(ByteBuffer buffer)
+	{
+		int fromTo = buffer.get() & 0xFF;
+		int count = buffer.get() & 0xFF;
+		return GameState.encodeMove(fromTo >> 4, fromTo & 0xF, count);
+	}
+}
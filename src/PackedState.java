@@ -0,0 +1,86 @@
+import java.util.Arrays;
+
+/**
+ * An immutable compact copy of a GameState that takes one byte per Card. Can be
+ * used as a key in a HashMap or HashSet since it has a cheap equals and a
+ * hashCode that is worked out once. The bytes are laid out as the top Card of
+ * each Foundation, the Card in each FreeCell and then the Cards in each
+ * Cascade from the bottom up followed by a 0 (every Card is stored as its card
+ * code + 1 so that 0 means empty). A PackedState made by packCanonical in
+ * GameState ignores the order of the Foundations, FreeCells and Cascades, so
+ * that the same position reached with the piles in a different order is equal.
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public final class PackedState
+{
+	// 4 Foundations, 4 FreeCells, the 52 Cards and one 0 after each Cascade
+	public static final int LENGTH = GameState.NO_OF_FOUNDATIONS
+			+ GameState.NO_OF_FREECELLS + 52 + GameState.NO_OF_CASCADES;
+
+	private final byte[] data;
+	private final int hash;
+
+	/**
+	 * Creates a new PackedState from the given bytes
+	 *
+	 * @param data the packed bytes (LENGTH long), which must not be changed
+	 *            afterwards
+	 */
+	PackedState(byte[] data)
+	{
+		this.data = data;
+		this.hash = Arrays.hashCode(data);
+	}
+
+	/**
+	 * Gets a byte of this PackedState
+	 *
+	 * @param index the index of the byte
+	 * @return the byte at the given index
+	 */
+	byte get(int index)
+	{
+		return data[index];
+	}
+
+	/**
+	 * Checks if this PackedState is the same position as the given Object
+	 *
+	 * @param other the Object to compare
+	 * @return true if the other Object is a PackedState with the same bytes,
+	 *         false if not
+	 */
+	public boolean equals(Object other)
+	{
+		if (this == other)
+			return true;
+
+		if (!(other instanceof PackedState))
+			return false;
+
+		PackedState otherState = (PackedState) other;
+		return hash == otherState.hash && Arrays.equals(data, otherState.data);
+	}
+
+	/**
+	 * Returns the hash code of this PackedState
+	 *
+	 * @return the hash code worked out when this PackedState was created
+	 */
+	public int hashCode()
+	{
+		return hash;
+	}
+
+	/**
+	 * Returns this PackedState as a GameState String
+	 *
+	 * @return the PackedState as a String
+	 */
+	public String toString()
+	{
+		return new GameState(this).toString();
+	}
+}
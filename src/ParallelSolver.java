@@ -0,0 +1,310 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Solves a single deal of FreeCell using every core. Works like the Solver
+ * (best-first search with the same Heuristic, safe moves to the Foundations
+ * and Zobrist hashing) but the search is split into tasks on a ForkJoinPool.
+ * Each task searches its own best GameStates and, whenever other threads are
+ * idle, hands every other one of its best GameStates to a new task that an
+ * idle thread can steal. All of the tasks share one SharedTranspositionTable
+ * so that a position is almost never searched by two threads. The table never
+ * grows, so a position whose run of entries is full is searched again (see
+ * getOverflows of the SharedTranspositionTable), which only costs time.
+ *
+ * The moves found may differ from run to run and from the Solver, but every
+ * move comes from a real GameState so the Solution can always be checked with
+ * Solution.isValidFor. A deal is only reported UNSOLVABLE when every reachable
+ * position has been searched, so it agrees with the Solver whenever neither
+ * of them gives up. The Heuristic is shared by all of the threads and must not
+ * keep any state.
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class ParallelSolver
+{
+	// A task only gives work away once it has this many GameStates waiting
+	private static final int SPLIT_SIZE = 64;
+
+	// Each task takes this many GameStates at a time from the shared limit
+	// of maxNodes, so that the threads rarely touch the same counter
+	private static final int BLOCK_SIZE = 1024;
+
+	private Heuristic heuristic;
+	private int maxNodes;
+	private ForkJoinPool pool;
+	private SharedTranspositionTable seen;
+
+	// Shared by the tasks of the current search
+	private AtomicInteger nodesReserved;
+	private AtomicInteger nodesExpanded;
+	private AtomicReference<Solver.Node> winner;
+	private volatile boolean gaveUp;
+
+	/**
+	 * Creates a new ParallelSolver with the BlockingHeuristic that uses one
+	 * thread per core and gives up after DEFAULT_MAX_NODES GameStates
+	 */
+	public ParallelSolver()
+	{
+		this(new BlockingHeuristic(), Solver.DEFAULT_MAX_NODES, Runtime
+				.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new ParallelSolver
+	 *
+	 * @param heuristic the Heuristic to guide the search (shared by all of the
+	 *            threads)
+	 * @param maxNodes the total number of GameStates to expand before giving
+	 *            up
+	 * @param threads the number of threads to search with
+	 */
+	public ParallelSolver(Heuristic heuristic, int maxNodes, int threads)
+	{
+		this.heuristic = heuristic;
+		this.maxNodes = maxNodes;
+		this.pool = new ForkJoinPool(threads);
+		this.seen = new SharedTranspositionTable();
+		this.nodesReserved = new AtomicInteger();
+		this.nodesExpanded = new AtomicInteger();
+		this.winner = new AtomicReference<Solver.Node>();
+	}
+
+	/**
+	 * Solves the deal with the given Cards
+	 *
+	 * @param dealtCards the card codes in the order they are dealt
+	 * @return the Solution
+	 */
+	public Solution solve(int[] dealtCards)
+	{
+		GameState start = new GameState();
+		start.deal(dealtCards);
+		return solve(start);
+	}
+
+	/**
+	 * Solves the given GameState. Only one deal is solved at a time, the
+	 * threads all work on the same deal
+	 *
+	 * @param start the GameState to solve (it is not changed)
+	 * @return the Solution
+	 */
+	public synchronized Solution solve(GameState start)
+	{
+		GameEvents.SolveEvent event = new GameEvents.SolveEvent();
+		event.begin();
+		Solution solution = search(start);
+		event.finish(solution, pool.getParallelism(), seen.getOverflows());
+		return solution;
+	}
+
+	/**
+	 * Searches for a Solution of the given GameState with all the threads
+	 *
+	 * @param start the GameState to solve (it is not changed)
+	 * @return the Solution
+	 */
+	private Solution search(GameState start)
+	{
+		long startTime = System.nanoTime();
+		seen.clear();
+		nodesReserved.set(0);
+		nodesExpanded.set(0);
+		winner.set(null);
+		gaveUp = false;
+
+		// Start by moving up any safe Cards
+		GameState state = new GameState(start);
+		int[] autoMoves = new int[53];
+		int noOfAutoMoves = new AutoPlay().playAll(state, autoMoves, 0);
+		Solver.Node root = new Solver.Node(state.pack(), null,
+				Arrays.copyOf(autoMoves, noOfAutoMoves), 0, 0, 0);
+		if (state.isWon())
+			return Solver.solution(root, 0, startTime);
+		seen.add(state.getHash());
+
+		PriorityQueue<Solver.Node> open = new PriorityQueue<Solver.Node>();
+		open.add(root);
+		pool.invoke(new SearchTask(open));
+
+		int expanded = nodesExpanded.get();
+		if (winner.get() != null)
+			return Solver.solution(winner.get(), expanded, startTime);
+
+		// Only give up if a task was stopped by the limit with GameStates
+		// left, like the Solver (running out after exactly maxNodes GameStates
+		// means the deal is unsolvable)
+		if (gaveUp)
+			return new Solution(Solution.GAVE_UP, new int[0], expanded,
+					System.nanoTime() - startTime);
+
+		return new Solution(Solution.UNSOLVABLE, new int[0], expanded,
+				System.nanoTime() - startTime);
+	}
+
+	/**
+	 * Takes the next block of GameStates a task may expand from the limit of
+	 * maxNodes
+	 *
+	 * @return the number of GameStates taken (up to BLOCK_SIZE), or 0 if the
+	 *         limit has been reached
+	 */
+	private int reserveNodes()
+	{
+		while (true)
+		{
+			int reserved = nodesReserved.get();
+			if (reserved >= maxNodes)
+				return 0;
+
+			int block = Math.min(BLOCK_SIZE, maxNodes - reserved);
+			if (nodesReserved.compareAndSet(reserved, reserved + block))
+				return block;
+		}
+	}
+
+	/**
+	 * Stops the threads of this ParallelSolver once it is no longer needed
+	 */
+	public void shutdown()
+	{
+		pool.shutdown();
+	}
+
+	/**
+	 * A part of the search that expands its own best GameStates and gives
+	 * half of them away to a new task when other threads are idle
+	 */
+	private class SearchTask extends RecursiveAction
+	{
+		// The tasks are never serialized, this only keeps RecursiveAction
+		// (which is Serializable) happy
+		private static final long serialVersionUID = 1L;
+
+		private PriorityQueue<Solver.Node> open;
+
+		/**
+		 * Creates a new SearchTask
+		 *
+		 * @param open the GameStates for this task to search from
+		 */
+		private SearchTask(PriorityQueue<Solver.Node> open)
+		{
+			this.open = open;
+		}
+
+		/**
+		 * Searches until the game is won by any task, this task runs out of
+		 * GameStates or the search gives up
+		 */
+		protected void compute()
+		{
+			GameState state = new GameState();
+			int[] moves = new int[GameState.MAX_MOVES];
+			int[] autoMoves = new int[53];
+			AutoPlay autoPlay = new AutoPlay();
+			ArrayList<SearchTask> forked = new ArrayList<SearchTask>();
+			long order = 0;
+
+			// Count the GameStates expanded by this task, and how many more
+			// it can expand before it needs another block
+			int expanded = 0;
+			int reserved = 0;
+
+			while (!open.isEmpty() && winner.get() == null)
+			{
+				// Give work away if other threads might be idle
+				if (open.size() >= SPLIT_SIZE
+						&& ForkJoinTask.getSurplusQueuedTaskCount() < 1)
+				{
+					SearchTask task = split();
+					task.fork();
+					forked.add(task);
+				}
+
+				if (reserved == 0)
+				{
+					reserved = reserveNodes();
+					if (reserved == 0)
+					{
+						gaveUp = true;
+						break;
+					}
+				}
+				reserved--;
+				expanded++;
+
+				Solver.Node node = open.poll();
+				state.unpack(node.state);
+
+				int noOfMoves = state.legalMoves(moves);
+				for (int move = 0; move < noOfMoves; move++)
+				{
+					// Make the move followed by any safe moves to the
+					// Foundations
+					autoMoves[0] = moves[move];
+					state.apply(moves[move]);
+					int noOfAutoMoves = autoPlay.play(state, moves[move],
+							autoMoves, 1);
+
+					if (seen.add(state.getHash()))
+					{
+						int[] childMoves = Arrays.copyOf(autoMoves,
+								noOfAutoMoves);
+						Solver.Node child = new Solver.Node(state.pack(), node,
+								childMoves, node.depth + 1,
+								heuristic.evaluate(state), order++);
+						if (state.isWon())
+						{
+							winner.compareAndSet(null, child);
+							break;
+						}
+						open.add(child);
+					}
+
+					for (int undo = noOfAutoMoves - 1; undo >= 0; undo--)
+						state.undo(autoMoves[undo]);
+				}
+			}
+
+			// Give back the GameStates this task didn't use so other tasks
+			// can still expand them
+			nodesReserved.addAndGet(-reserved);
+			nodesExpanded.addAndGet(expanded);
+
+			for (SearchTask task : forked)
+				task.join();
+		}
+
+		/**
+		 * Takes every other one of the best GameStates of this task and gives
+		 * them to a new task
+		 *
+		 * @return the new task
+		 */
+		private SearchTask split()
+		{
+			PriorityQueue<Solver.Node> given = new PriorityQueue<Solver.Node>();
+			Solver.Node[] kept = new Solver.Node[SPLIT_SIZE / 2];
+			for (int node = 0; node < SPLIT_SIZE / 2; node++)
+			{
+				kept[node] = open.poll();
+				given.add(open.poll());
+			}
+
+			for (Solver.Node node : kept)
+				open.add(node);
+
+			return new SearchTask(given);
+		}
+	}
+}
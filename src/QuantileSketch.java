@@ -0,0 +1,217 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Keeps track of the distribution of a stream of values (ex. how long each
+ * game took) in a fixed amount of memory, so that the median or any other
+ * quantile can be found at any time without keeping every value. Each value
+ * is counted in a bucket whose bounds grow by GROWTH times from one bucket to
+ * the next, so a quantile is always within about 4% of the real value no
+ * matter how large the values are. Small whole numbers (ex. 0 to 12 undos)
+ * each get their own bucket, so they are exact. Adding a value takes the
+ * same time however many values have been added, and finding a quantile
+ * only looks at the BUCKETS counts.
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class QuantileSketch
+{
+	public static final int BUCKETS = 192;
+	public static final double GROWTH = 1.08;
+
+	// Size in bytes written by writeTo: count, sum, min, max and the buckets
+	public static final int SIZE = 4 + 8 + 4 + 4 + BUCKETS * 4;
+
+	private static final double LOG_GROWTH = Math.log(GROWTH);
+
+	private int count;
+	private long sum;
+	private int min;
+	private int max;
+	private int[] buckets;
+
+	/**
+	 * Creates a new empty QuantileSketch
+	 */
+	public QuantileSketch()
+	{
+		buckets = new int[BUCKETS];
+	}
+
+	/**
+	 * Adds a value to this QuantileSketch
+	 *
+	 * @param value the value to add (negative values are counted as 0)
+	 */
+	public void add(int value)
+	{
+		value = Math.max(value, 0);
+		if (count == 0 || value < min)
+			min = value;
+		if (count == 0 || value > max)
+			max = value;
+		count++;
+		sum += value;
+		buckets[bucketOf(value)]++;
+	}
+
+	/**
+	 * Gets the number of values added
+	 *
+	 * @return the number of values
+	 */
+	public int getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Gets the smallest value added
+	 *
+	 * @return the smallest value, or 0 if there are no values
+	 */
+	public int getMin()
+	{
+		return min;
+	}
+
+	/**
+	 * Gets the largest value added
+	 *
+	 * @return the largest value, or 0 if there are no values
+	 */
+	public int getMax()
+	{
+		return max;
+	}
+
+	/**
+	 * Gets the average of the values added
+	 *
+	 * @return the average, or 0 if there are no values
+	 */
+	public double getMean()
+	{
+		if (count == 0)
+			return 0;
+
+		return sum * 1.0 / count;
+	}
+
+	/**
+	 * Finds a quantile of the values added (ex. 0.5 for the median or 0.9
+	 * for the value that 90% of the values are at or below)
+	 *
+	 * @param fraction the quantile to find, from 0 to 1
+	 * @return the estimated value, or 0 if there are no values
+	 */
+	public int getQuantile(double fraction)
+	{
+		if (count == 0)
+			return 0;
+
+		// The rank of the value we want, counting from 0
+		long rank = (long) (Math.max(0, Math.min(fraction, 1)) * (count - 1));
+		long seen = 0;
+		for (int bucket = 0; bucket < BUCKETS; bucket++)
+		{
+			seen += buckets[bucket];
+			if (seen > rank)
+				return Math.max(min, Math.min(valueOf(bucket), max));
+		}
+
+		return max;
+	}
+
+	/**
+	 * Writes this QuantileSketch into a buffer (SIZE bytes)
+	 *
+	 * @param buffer the buffer to write to
+	 */
+	public void writeTo(ByteBuffer buffer)
+	{
+		buffer.putInt(count);
+		buffer.putLong(sum);
+		buffer.putInt(min);
+		buffer.putInt(max);
+		for (int bucket = 0; bucket < BUCKETS; bucket++)
+			buffer.putInt(buckets[bucket]);
+	}
+
+	/**
+	 * Reads a QuantileSketch written by writeTo
+	 *
+	 * @param buffer the buffer to read from
+	 * @return the QuantileSketch
+	 * @throws IOException if the counts don't add up
+	 */
+	public static QuantileSketch readFrom(ByteBuffer buffer)
+			throws IOException
+	{
+		QuantileSketch sketch = new QuantileSketch();
+		sketch.count = buffer.getInt();
+		sketch.sum = buffer.getLong();
+		sketch.min = buffer.getInt();
+		sketch.max = buffer.getInt();
+		long total = 0;
+		for (int bucket = 0; bucket < BUCKETS; bucket++)
+		{
+			sketch.buckets[bucket] = buffer.getInt();
+			if (sketch.buckets[bucket] < 0)
+				throw new IOException("Negative count in a sketch");
+			total += sketch.buckets[bucket];
+		}
+		if (total != sketch.count)
+			throw new IOException("Sketch counts don't add up");
+
+		return sketch;
+	}
+
+	/**
+	 * Gives a short summary of the values: the median, the 90% quantile and
+	 * the smallest and largest values
+	 *
+	 * @return the summary, or "none" if there are no values
+	 */
+	public String toString()
+	{
+		if (count == 0)
+			return "none";
+
+		return String.format("median %d, 90%% %d (min %d, max %d)",
+				getQuantile(0.5), getQuantile(0.9), min, max);
+	}
+
+	/**
+	 * Finds the bucket a value is counted in. Bucket i holds the values v
+	 * with GROWTH^(i-1) < v + 1 <= GROWTH^i (1 is added so that 0 fits)
+	 *
+	 * @param value the value (0 or more)
+	 * @return the bucket number
+	 */
+	private static int bucketOf(int value)
+	{
+		if (value == 0)
+			return 0;
+
+		int bucket = (int) Math.ceil(Math.log(value + 1.0) / LOG_GROWTH);
+		return Math.min(bucket, BUCKETS - 1);
+	}
+
+	/**
+	 * Finds the value that stands for all the values in a bucket, which is
+	 * within about 4% of all of them
+	 *
+	 * @param bucket the bucket number
+	 * @return the value
+	 */
+	private static int valueOf(int bucket)
+	{
+		if (bucket == 0)
+			return 0;
+
+		return (int) Math.round(2 * Math.pow(GROWTH, bucket) / (GROWTH + 1))
+				- 1;
+	}
+}
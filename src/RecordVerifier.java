@@ -0,0 +1,210 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Checks GameRecords by dealing each game again and replaying its moves
+ * through a GameState. A record is WON if every move is legal and the game
+ * ends with all of the Foundations complete, NOT_WON if every move is legal
+ * but the game was not finished and ILLEGAL if any move breaks the rules of
+ * FreeCell. Records can be checked straight from a buffer (ex. a
+ * memory-mapped file of records) without creating any objects, so millions of
+ * moves can be checked per second. A RecordVerifier reuses its own GameState,
+ * so each thread should use its own RecordVerifier.
+ *
+ * Usage: java RecordVerifier recordFile
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class RecordVerifier
+{
+	public static final int WON = 0;
+	public static final int NOT_WON = 1;
+	public static final int ILLEGAL = 2;
+
+	private GameState state;
+	private DealGenerator generator;
+	private int[] dealtCards;
+
+	// Details of the last record checked
+	private long dealNumber;
+	private int noOfMoves;
+	private int illegalMove;
+
+	/**
+	 * Creates a new RecordVerifier
+	 */
+	public RecordVerifier()
+	{
+		state = new GameState();
+		generator = new DealGenerator();
+		dealtCards = new int[52];
+	}
+
+	/**
+	 * Checks the given GameRecord
+	 *
+	 * @param record the GameRecord to check
+	 * @return WON, NOT_WON or ILLEGAL
+	 */
+	public int verify(GameRecord record)
+	{
+		start(record.getDealNumber(), record.getNoOfMoves());
+		for (int move = 0; move < noOfMoves; move++)
+			if (!play(move, record.getMove(move)))
+				return ILLEGAL;
+
+		return finish();
+	}
+
+	/**
+	 * Checks the next GameRecord in the given buffer, leaving the buffer at
+	 * the start of the record after it
+	 *
+	 * @param buffer the buffer to read from
+	 * @return WON, NOT_WON or ILLEGAL
+	 * @throws IOException if the buffer does not hold a valid GameRecord
+	 */
+	public int verify(ByteBuffer buffer) throws IOException
+	{
+		long dealNumber = GameRecord.readHeader(buffer);
+		if (!DealGenerator.isDealNumber(dealNumber))
+			throw new IOException("Not a deal number: " + dealNumber);
+		start(dealNumber, GameRecord.readNoOfMoves(buffer));
+
+		int end = buffer.position() + noOfMoves * 2;
+		for (int move = 0; move < noOfMoves; move++)
+			if (!play(move, MoveHistory.readMove(buffer)))
+			{
+				buffer.position(end);
+				return ILLEGAL;
+			}
+
+		return finish();
+	}
+
+	/**
+	 * Gets the deal number of the last record checked
+	 *
+	 * @return the Microsoft deal number
+	 */
+	public long getDealNumber()
+	{
+		return dealNumber;
+	}
+
+	/**
+	 * Gets the number of moves in the last record checked
+	 *
+	 * @return the number of moves
+	 */
+	public int getNoOfMoves()
+	{
+		return noOfMoves;
+	}
+
+	/**
+	 * Gets the index of the first illegal move of the last record checked
+	 *
+	 * @return the index of the illegal move, or -1 if every move was legal
+	 */
+	public int getIllegalMove()
+	{
+		return illegalMove;
+	}
+
+	/**
+	 * Deals a game to start checking a record
+	 *
+	 * @param dealNumber the Microsoft deal number of the game
+	 * @param noOfMoves the number of moves in the record
+	 */
+	private void start(long dealNumber, int noOfMoves)
+	{
+		this.dealNumber = dealNumber;
+		this.noOfMoves = noOfMoves;
+		this.illegalMove = -1;
+		generator.deal(dealNumber, dealtCards);
+		state.deal(dealtCards);
+	}
+
+	/**
+	 * Plays a move of the record if it is legal
+	 *
+	 * @param index the index of the move
+	 * @param move the packed move
+	 * @return true if the move was legal, false if not
+	 */
+	private boolean play(int index, int move)
+	{
+		if (!state.isLegal(move))
+		{
+			illegalMove = index;
+			return false;
+		}
+
+		state.apply(move);
+		return true;
+	}
+
+	/**
+	 * Checks if the game was won after all of the moves of a record
+	 *
+	 * @return WON or NOT_WON
+	 */
+	private int finish()
+	{
+		if (state.isWon())
+			return WON;
+
+		return NOT_WON;
+	}
+
+	public static void main(String[] args) throws IOException
+	{
+		if (args.length != 1)
+		{
+			System.err.println("Usage: java RecordVerifier recordFile");
+			System.exit(1);
+		}
+
+		Path path = Paths.get(args[0]);
+		FileChannel file = FileChannel.open(path, StandardOpenOption.READ);
+		MappedByteBuffer buffer = file.map(FileChannel.MapMode.READ_ONLY, 0,
+				file.size());
+		file.close();
+
+		RecordVerifier verifier = new RecordVerifier();
+		long startTime = System.nanoTime();
+		long moves = 0;
+		int[] counts = new int[3];
+		int record = 0;
+		while (buffer.hasRemaining())
+		{
+			int result = verifier.verify(buffer);
+			counts[result]++;
+			moves += verifier.getNoOfMoves();
+
+			// Flag anything that isn't a win
+			if (result == ILLEGAL)
+				System.out.printf("%d: game #%d illegal move %d%n", record,
+						verifier.getDealNumber(),
+						verifier.getIllegalMove() + 1);
+			else if (result == NOT_WON)
+				System.out.printf("%d: game #%d not won%n", record,
+						verifier.getDealNumber());
+			record++;
+		}
+
+		double seconds = (System.nanoTime() - startTime) / 1e9;
+		System.err.printf("%d records, %d moves in %.2f s (%.0f moves/s)%n",
+				record, moves, seconds, moves / seconds);
+		System.err.printf("%d won, %d not won, %d illegal%n", counts[WON],
+				counts[NOT_WON], counts[ILLEGAL]);
+	}
+}
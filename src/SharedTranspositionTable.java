@@ -0,0 +1,117 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size table of the positions a search has already reached that can
+ * be shared by many threads at once, keyed by the Zobrist hash of a GameState.
+ * Positions are added with a compare-and-set so no locks are needed. Each
+ * position may only be stored in a short run of entries after its home entry,
+ * and when that run is full the position is reported as new (it may then be
+ * searched twice, but the table never grows). These overflows are counted so
+ * that a search can tell how full the table was. The lowest byte of each stored
+ * hash is replaced by a stamp of the search it belongs to, so clearing the
+ * table for the next search is O(1).
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class SharedTranspositionTable
+{
+	public static final int DEFAULT_SIZE = 1 << 22;
+	private static final int MAX_PROBES = 16;
+
+	private static final long STAMP_MASK = 0xFF;
+
+	private AtomicLongArray keys;
+	private int mask;
+	private int search;
+	private LongAdder overflows;
+
+	/**
+	 * Creates a new SharedTranspositionTable with DEFAULT_SIZE entries
+	 */
+	public SharedTranspositionTable()
+	{
+		this(DEFAULT_SIZE);
+	}
+
+	/**
+	 * Creates a new SharedTranspositionTable
+	 *
+	 * @param entries the number of entries (rounded up to a power of 2)
+	 */
+	public SharedTranspositionTable(int entries)
+	{
+		int capacity = MAX_PROBES;
+		while (capacity < entries)
+			capacity *= 2;
+
+		keys = new AtomicLongArray(capacity);
+		mask = capacity - 1;
+		search = 1;
+		overflows = new LongAdder();
+	}
+
+	/**
+	 * Adds a position to the table if it is not there already
+	 *
+	 * @param key the Zobrist hash of the position
+	 * @return true if the position is new (or there was no room to store it),
+	 *         false if it was already in the table
+	 */
+	public boolean add(long key)
+	{
+		long stamped = key & ~STAMP_MASK | search;
+		int home = (int) (key ^ key >>> 32) & mask;
+		for (int probe = 0; probe < MAX_PROBES; probe++)
+		{
+			int entry = home + probe & mask;
+			long stored = keys.get(entry);
+			if (stored == stamped)
+				return false;
+
+			// An entry from an earlier search is empty
+			if ((stored & STAMP_MASK) != search)
+			{
+				if (keys.compareAndSet(entry, stored, stamped))
+					return true;
+
+				// Another thread took this entry first, check what it stored
+				if (keys.get(entry) == stamped)
+					return false;
+			}
+		}
+
+		// No room, so this position may be searched again
+		overflows.increment();
+		return true;
+	}
+
+	/**
+	 * Finds the number of positions that had no room in the table since it
+	 * was last cleared (each may have been searched more than once)
+	 *
+	 * @return the number of positions that weren't stored
+	 */
+	public long getOverflows()
+	{
+		return overflows.sum();
+	}
+
+	/**
+	 * Empties the table for a new search (must not be called during a search)
+	 */
+	public void clear()
+	{
+		search++;
+		overflows.reset();
+
+		// Start again once the search stamps run out
+		if (search > STAMP_MASK)
+		{
+			for (int entry = 0; entry <= mask; entry++)
+				keys.set(entry, 0);
+			search = 1;
+		}
+	}
+}
@@ -0,0 +1,138 @@
+/**
+ * Keeps track of the result of solving a deal with the Solver: whether the
+ * deal was solved, found to be unsolvable or the Solver gave up, the packed
+ * moves that win the game, the number of GameStates the Solver expanded and
+ * how long it took. Includes a method to check that the moves really win a
+ * given game.
+ * 
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class Solution
+{
+	public static final int SOLVED = 0;
+	public static final int UNSOLVABLE = 1;
+	public static final int GAVE_UP = 2;
+
+	private int result;
+	private int[] moves;
+	private int nodesExpanded;
+	private long nanoTime;
+
+	/**
+	 * Creates a new Solution
+	 * 
+	 * @param result SOLVED, UNSOLVABLE or GAVE_UP
+	 * @param moves the packed moves that win the game (empty if not solved)
+	 * @param nodesExpanded the number of GameStates expanded
+	 * @param nanoTime the time taken in nanoseconds
+	 */
+	public Solution(int result, int[] moves, int nodesExpanded, long nanoTime)
+	{
+		this.result = result;
+		this.moves = moves;
+		this.nodesExpanded = nodesExpanded;
+		this.nanoTime = nanoTime;
+	}
+
+	/**
+	 * Gets the result of the search
+	 * 
+	 * @return SOLVED, UNSOLVABLE or GAVE_UP
+	 */
+	public int getResult()
+	{
+		return result;
+	}
+
+	/**
+	 * Checks if the deal was solved
+	 * 
+	 * @return true if the deal was solved, false if not
+	 */
+	public boolean isSolved()
+	{
+		return result == SOLVED;
+	}
+
+	/**
+	 * Gets the packed moves that win the game
+	 * 
+	 * @return the packed moves (empty if the deal was not solved)
+	 */
+	public int[] getMoves()
+	{
+		return moves;
+	}
+
+	/**
+	 * Gets the number of moves that win the game
+	 * 
+	 * @return the number of moves (0 if the deal was not solved)
+	 */
+	public int getLength()
+	{
+		return moves.length;
+	}
+
+	/**
+	 * Gets the number of GameStates the Solver expanded
+	 * 
+	 * @return the number of GameStates expanded
+	 */
+	public int getNodesExpanded()
+	{
+		return nodesExpanded;
+	}
+
+	/**
+	 * Gets the time taken by the Solver
+	 * 
+	 * @return the time taken in nanoseconds
+	 */
+	public long getNanoTime()
+	{
+		return nanoTime;
+	}
+
+	/**
+	 * Checks that the moves of this Solution are all legal and win the game
+	 * when played from the given GameState
+	 * 
+	 * @param start the GameState the moves start from (it is not changed)
+	 * @return true if the moves win the game, false if not
+	 */
+	public boolean isValidFor(GameState start)
+	{
+		GameState state = new GameState(start);
+		for (int move : moves)
+		{
+			if (!state.isLegal(move))
+				return false;
+			state.apply(move);
+		}
+
+		return state.isWon();
+	}
+
+	/**
+	 * Returns the Solution as a String
+	 * 
+	 * @return the Solution as a String
+	 */
+	public String toString()
+	{
+		StringBuilder str = new StringBuilder(moves.length * 6 + 40);
+		if (result == SOLVED)
+			str.append("solved in ").append(moves.length).append(" moves:");
+		else if (result == UNSOLVABLE)
+			str.append("unsolvable");
+		else
+			str.append("gave up");
+
+		for (int move : moves)
+			str.append(' ').append(GameState.moveToString(move));
+
+		return str.toString();
+	}
+}
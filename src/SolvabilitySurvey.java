@@ -0,0 +1,430 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A command-line program that solves a range of numbered deals on every core
+ * and writes one line per deal, in deal order: the deal number, whether it
+ * was solved (solved, unsolvable or gaveup), the number of moves in the
+ * solution, the number of GameStates expanded and the time taken in
+ * milliseconds. Progress and the overall deals per second are shown on the
+ * error stream.
+ *
+ * When the results go to a file, a checkpoint file next to it records the
+ * range of deals and how far the results file has been written. Running the
+ * same command again after an interruption carries on from the checkpoint. A
+ * results file is never overwritten: a checkpoint for a different range or a
+ * results file with no checkpoint stops the survey. If a deal can't be solved
+ * (ex. the Solver throws an exception), the survey stops with that error
+ * instead of waiting for its result.
+ *
+ * Usage: java SolvabilitySurvey first last [threads] [resultsFile]
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class SolvabilitySurvey
+{
+	// The most deals that can be solved ahead of the next deal to be written
+	private static final int WINDOW = 4096;
+
+	// How often to save a checkpoint
+	private static final int CHECKPOINT_DEALS = 1000;
+	private static final long PROGRESS_NANOS = 5000000000L;
+
+	private long first, last;
+	private long start;
+	private int threads;
+	private String[] results;
+	private AtomicLong nextDeal;
+	private long nextToWrite;
+
+	// The number of deals of each result (SOLVED, UNSOLVABLE or GAVE_UP)
+	private AtomicIntegerArray counts;
+
+	// The first error of a Worker and the deal it was solving
+	private Throwable failure;
+	private long failedDeal;
+
+	/**
+	 * Creates a new SolvabilitySurvey
+	 *
+	 * @param first the first deal number of the range
+	 * @param last the last deal number of the range
+	 * @param start the first deal number to solve (after first if carrying on
+	 *            from a checkpoint)
+	 * @param threads the number of threads to solve with
+	 */
+	public SolvabilitySurvey(long first, long last, long start, int threads)
+	{
+		this.first = first;
+		this.last = last;
+		this.start = start;
+		this.threads = threads;
+		this.results = new String[WINDOW];
+		this.nextDeal = new AtomicLong(start);
+		this.nextToWrite = start;
+		this.counts = new AtomicIntegerArray(3);
+	}
+
+	/**
+	 * Solves every deal in the range and writes the results
+	 *
+	 * @param out where to write the result lines
+	 * @param checkpoint the checkpoint to update as results are written, or
+	 *            null for no checkpoints
+	 * @throws IOException if the results or checkpoint can't be written
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 * @throws IllegalStateException if a Worker failed to solve a deal
+	 */
+	public void run(Writer out, Checkpoint checkpoint) throws IOException,
+			InterruptedException
+	{
+		Thread[] workers = new Thread[threads];
+		for (int worker = 0; worker < threads; worker++)
+		{
+			workers[worker] = new Thread(new Worker(), "survey-" + worker);
+			workers[worker].setDaemon(true);
+			workers[worker].start();
+		}
+
+		long startTime = System.nanoTime();
+		long lastProgress = startTime;
+		long total = last - start + 1;
+
+		// Write the results in order as they come in
+		for (long deal = start; deal <= last; deal++)
+		{
+			String line = takeResult(deal);
+			out.write(line);
+			out.write('\n');
+
+			long done = deal - start + 1;
+			if (checkpoint != null
+					&& (done % CHECKPOINT_DEALS == 0 || deal == last))
+			{
+				out.flush();
+				checkpoint.save(first, last, deal + 1);
+			}
+
+			long now = System.nanoTime();
+			if (now - lastProgress >= PROGRESS_NANOS)
+			{
+				lastProgress = now;
+				System.err.printf("%d/%d deals, %.1f deals/s%n", done, total,
+						done * 1e9 / (now - startTime));
+			}
+		}
+		out.flush();
+
+		double seconds = (System.nanoTime() - startTime) / 1e9;
+		System.err.printf("%d deals in %.1f s (%.1f deals/s)%n", total,
+				seconds, total / seconds);
+		System.err.printf("%d solved, %d unsolvable, %d gave up%n",
+				counts.get(Solution.SOLVED), counts.get(Solution.UNSOLVABLE),
+				counts.get(Solution.GAVE_UP));
+	}
+
+	/**
+	 * Waits for the result of the given deal and frees up its spot for a later
+	 * deal
+	 *
+	 * @param deal the deal number
+	 * @return the result line
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 * @throws IllegalStateException if a Worker failed to solve a deal
+	 */
+	private synchronized String takeResult(long deal)
+			throws InterruptedException
+	{
+		int slot = (int) (deal % WINDOW);
+		while (results[slot] == null)
+		{
+			// The result may never come if a Worker has stopped
+			if (failure != null)
+				throw new IllegalStateException("Solving deal " + failedDeal
+						+ " failed", failure);
+			wait();
+		}
+
+		String line = results[slot];
+		results[slot] = null;
+		nextToWrite = deal + 1;
+		notifyAll();
+		return line;
+	}
+
+	/**
+	 * Stores the result of a deal once there is room for it in the window
+	 *
+	 * @param deal the deal number
+	 * @param line the result line
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	private synchronized void putResult(long deal, String line)
+			throws InterruptedException
+	{
+		while (deal - nextToWrite >= WINDOW)
+			wait();
+
+		results[(int) (deal % WINDOW)] = line;
+		notifyAll();
+	}
+
+	/**
+	 * Records the error that stopped a Worker and wakes up the writer
+	 *
+	 * @param deal the deal the Worker was solving
+	 * @param error the error
+	 */
+	private synchronized void fail(long deal, Throwable error)
+	{
+		if (failure == null)
+		{
+			failure = error;
+			failedDeal = deal;
+		}
+		notifyAll();
+	}
+
+	/**
+	 * Formats the result line of a deal
+	 *
+	 * @param deal the deal number
+	 * @param solution the Solution of the deal
+	 * @return the result line
+	 */
+	private static String format(long deal, Solution solution)
+	{
+		String result = "solved";
+		if (solution.getResult() == Solution.UNSOLVABLE)
+			result = "unsolvable";
+		else if (solution.getResult() == Solution.GAVE_UP)
+			result = "gaveup";
+
+		return String.format("%d %s %d %d %.3f", deal, result,
+				solution.getLength(), solution.getNodesExpanded(),
+				solution.getNanoTime() / 1e6);
+	}
+
+	/**
+	 * Solves deals until there are none left, each Worker uses its own Solver
+	 * and DealGenerator
+	 */
+	private class Worker implements Runnable
+	{
+		/**
+		 * Takes the next deal number, solves it and stores the result
+		 */
+		public void run()
+		{
+			Solver solver = new Solver();
+			DealGenerator generator = new DealGenerator();
+			int[] dealtCards = new int[52];
+			long deal = start;
+
+			try
+			{
+				deal = nextDeal.getAndIncrement();
+				while (deal <= last)
+				{
+					generator.deal(deal, dealtCards);
+					Solution solution = solver.solve(dealtCards);
+					counts.incrementAndGet(solution.getResult());
+					putResult(deal, format(deal, solution));
+					deal = nextDeal.getAndIncrement();
+				}
+			}
+			catch (InterruptedException exp)
+			{
+				// Stop quietly, the program is exiting
+			}
+			catch (Throwable exp)
+			{
+				// Pass the error on, or the writer would wait for this deal
+				fail(deal, exp);
+			}
+		}
+	}
+
+	/**
+	 * Keeps track of how far a results file has been written in a checkpoint
+	 * file (the range of deals, the next deal to solve and the length of the
+	 * results file at that point), which is replaced in one step so it is
+	 * never half written. The results are forced to the disk before each
+	 * checkpoint is saved, so the checkpoint never points past them
+	 */
+	static class Checkpoint
+	{
+		private File file;
+		private File resultsFile;
+		private FileChannel results;
+
+		/**
+		 * Creates a new Checkpoint for the given results file
+		 *
+		 * @param resultsFile the results file
+		 */
+		private Checkpoint(File resultsFile)
+		{
+			this.resultsFile = resultsFile;
+			this.file = new File(resultsFile.getPath() + ".checkpoint");
+		}
+
+		/**
+		 * Reads the checkpoint and cuts the results file back to where the
+		 * checkpoint was saved (any lines after it will be written again)
+		 *
+		 * @param first the first deal of the range
+		 * @param last the last deal of the range
+		 * @return the next deal to solve, or first if there is no checkpoint
+		 * @throws IOException if the files can't be read or cut back, the
+		 *             checkpoint is for a different range or the results file
+		 *             already has results but there is no checkpoint
+		 */
+		private long resume(long first, long last) throws IOException
+		{
+			long nextDeal = first;
+			long length = 0;
+			if (file.exists())
+			{
+				Scanner in = new Scanner(file, "UTF-8");
+				try
+				{
+					long checkpointFirst = in.nextLong();
+					long checkpointLast = in.nextLong();
+					nextDeal = in.nextLong();
+					length = in.nextLong();
+					if (checkpointFirst != first || checkpointLast != last)
+						throw new IOException(file + " is for deals "
+								+ checkpointFirst + " to " + checkpointLast
+								+ ", not " + first + " to " + last);
+				}
+				catch (RuntimeException exp)
+				{
+					throw new IOException(file + " is not a checkpoint", exp);
+				}
+				finally
+				{
+					in.close();
+				}
+				if (nextDeal < first || nextDeal > last + 1 || length < 0
+						|| length > resultsFile.length())
+					throw new IOException(file + " doesn't match "
+							+ resultsFile);
+			}
+			else if (resultsFile.length() > 0)
+				throw new IOException(resultsFile + " already has results "
+						+ "but no checkpoint, move it or delete it first");
+
+			RandomAccessFile data = new RandomAccessFile(resultsFile, "rw");
+			data.setLength(length);
+			data.close();
+			return nextDeal;
+		}
+
+		/**
+		 * Opens the results file to add more results after the checkpoint
+		 *
+		 * @return the Writer to write the results with
+		 * @throws IOException if the file can't be opened
+		 */
+		private Writer open() throws IOException
+		{
+			FileOutputStream stream = new FileOutputStream(resultsFile, true);
+			results = stream.getChannel();
+			return new BufferedWriter(new OutputStreamWriter(stream,
+					StandardCharsets.UTF_8));
+		}
+
+		/**
+		 * Saves the checkpoint once the results written so far are on the
+		 * disk (the Writer must be flushed first)
+		 *
+		 * @param first the first deal of the range
+		 * @param last the last deal of the range
+		 * @param nextDeal the next deal whose result has not been written
+		 * @throws IOException if the checkpoint can't be written
+		 */
+		private void save(long first, long last, long nextDeal)
+				throws IOException
+		{
+			results.force(false);
+			File temp = new File(file.getPath() + ".tmp");
+			Files.write(temp.toPath(), (first + " " + last + " " + nextDeal
+					+ " " + results.size()).getBytes(StandardCharsets.UTF_8));
+			Files.move(temp.toPath(), file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		}
+	}
+
+	public static void main(String[] args) throws Exception
+	{
+		if (args.length < 2)
+		{
+			System.err.println("Usage: java SolvabilitySurvey first last "
+					+ "[threads] [resultsFile]");
+			System.exit(1);
+		}
+
+		long first = Long.parseLong(args[0]);
+		long last = Long.parseLong(args[1]);
+		int threads = Runtime.getRuntime().availableProcessors();
+		if (args.length > 2)
+			threads = Integer.parseInt(args[2]);
+
+		if (!DealGenerator.isDealNumber(first)
+				|| !DealGenerator.isDealNumber(last) || first > last
+				|| threads < 1)
+		{
+			System.err.println("Deals must be from "
+					+ DealGenerator.MIN_DEAL_NUMBER + " to "
+					+ DealGenerator.MAX_DEAL_NUMBER
+					+ " and threads at least 1");
+			System.exit(1);
+		}
+
+		Writer out;
+		Checkpoint checkpoint = null;
+		long nextDeal = first;
+		if (args.length > 3)
+		{
+			// Carry on from the last checkpoint
+			checkpoint = new Checkpoint(new File(args[3]));
+			try
+			{
+				nextDeal = checkpoint.resume(first, last);
+			}
+			catch (IOException exp)
+			{
+				System.err.println(exp.getMessage());
+				System.exit(1);
+			}
+			if (nextDeal > last)
+			{
+				System.err.println("All deals are already done");
+				return;
+			}
+			out = checkpoint.open();
+		}
+		else
+			out = new BufferedWriter(new OutputStreamWriter(System.out,
+					StandardCharsets.UTF_8));
+
+		new SolvabilitySurvey(first, last, nextDeal, threads).run(out,
+				checkpoint);
+		out.close();
+	}
+}
@@ -0,0 +1,274 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Solves a deal of FreeCell using a best-first search over the legal moves of
+ * a GameState. The GameStates with the lowest estimate from the Heuristic are
+ * expanded first. After every move any Cards that are safe to move up to the
+ * Foundations are moved up straight away by an AutoPlay (which only checks
+ * the piles the move changed), and positions that have already been seen
+ * (even with the piles in a different order) are skipped using the Zobrist
+ * hash of each GameState and a TranspositionTable. Includes methods to solve
+ * a GameState, a list of dealt Cards, a Deck or a deal String.
+ *
+ * A Solver reuses its TranspositionTable and AutoPlay between searches, so
+ * each thread should use its own Solver.
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class Solver
+{
+	public static final int DEFAULT_MAX_NODES = 200000;
+
+	private Heuristic heuristic;
+	private int maxNodes;
+	private TranspositionTable seen;
+	private AutoPlay autoPlay;
+
+	/**
+	 * Creates a new Solver with the BlockingHeuristic that gives up after
+	 * DEFAULT_MAX_NODES GameStates
+	 */
+	public Solver()
+	{
+		this(new BlockingHeuristic(), DEFAULT_MAX_NODES);
+	}
+
+	/**
+	 * Creates a new Solver
+	 *
+	 * @param heuristic the Heuristic to guide the search
+	 * @param maxNodes the number of GameStates to expand before giving up
+	 */
+	public Solver(Heuristic heuristic, int maxNodes)
+	{
+		this(heuristic, maxNodes, TranspositionTable.DEFAULT_SIZE);
+	}
+
+	/**
+	 * Creates a new Solver
+	 *
+	 * @param heuristic the Heuristic to guide the search
+	 * @param maxNodes the number of GameStates to expand before giving up
+	 * @param tableSize the number of positions the TranspositionTable holds
+	 */
+	public Solver(Heuristic heuristic, int maxNodes, int tableSize)
+	{
+		this.heuristic = heuristic;
+		this.maxNodes = maxNodes;
+		this.seen = new TranspositionTable(tableSize);
+		this.autoPlay = new AutoPlay();
+	}
+
+	/**
+	 * Solves the deal with the given Cards
+	 *
+	 * @param dealtCards the card codes in the order they are dealt
+	 * @return the Solution
+	 */
+	public Solution solve(int[] dealtCards)
+	{
+		GameState start = new GameState();
+		start.deal(dealtCards);
+		return solve(start);
+	}
+
+	/**
+	 * Solves the deal with the Cards left in the given Deck
+	 *
+	 * @param deck the Deck in the order its Cards would be dealt
+	 * @return the Solution
+	 */
+	public Solution solve(Deck deck)
+	{
+		return solve(deck.getDealOrder());
+	}
+
+	/**
+	 * Solves the board in the given String in the layout read by DealReader
+	 * (each line is a Cascade from the bottom Card up in the form of RANKSUIT,
+	 * ex. KS 2H 9D, optionally starting with a colon)
+	 *
+	 * @param deal the board as a String
+	 * @return the Solution
+	 * @throws IllegalArgumentException if the String is not a valid board
+	 */
+	public Solution solve(String deal)
+	{
+		GameState start = new GameState();
+		DealReader reader = new DealReader(Channels
+				.newChannel(new ByteArrayInputStream(deal
+						.getBytes(StandardCharsets.US_ASCII))));
+		try
+		{
+			if (!reader.read(start))
+				throw new IllegalArgumentException("No board to solve");
+		}
+		catch (IOException exp)
+		{
+			throw new IllegalArgumentException(exp.getMessage(), exp);
+		}
+
+		return solve(start);
+	}
+
+	/**
+	 * Solves the given GameState
+	 *
+	 * @param start the GameState to solve (it is not changed)
+	 * @return the Solution
+	 */
+	public Solution solve(GameState start)
+	{
+		GameEvents.SolveEvent event = new GameEvents.SolveEvent();
+		event.begin();
+		Solution solution = search(start);
+		event.finish(solution, 1, seen.getReplaced());
+		return solution;
+	}
+
+	/**
+	 * Searches for a Solution of the given GameState
+	 *
+	 * @param start the GameState to solve (it is not changed)
+	 * @return the Solution
+	 */
+	private Solution search(GameState start)
+	{
+		long startTime = System.nanoTime();
+		GameState state = new GameState(start);
+		int[] moves = new int[GameState.MAX_MOVES];
+		int[] autoMoves = new int[53];
+		PriorityQueue<Node> open = new PriorityQueue<Node>();
+		long order = 0;
+		seen.clear();
+
+		// Start by moving up any safe Cards
+		int noOfAutoMoves = autoPlay.playAll(state, autoMoves, 0);
+		Node root = new Node(state.pack(), null, Arrays.copyOf(autoMoves,
+				noOfAutoMoves), 0, 0, order++);
+		if (state.isWon())
+			return solution(root, 0, startTime);
+		seen.add(state.getHash(), 0);
+		open.add(root);
+
+		int nodesExpanded = 0;
+		while (!open.isEmpty())
+		{
+			if (nodesExpanded >= maxNodes)
+				return new Solution(Solution.GAVE_UP, new int[0],
+						nodesExpanded, System.nanoTime() - startTime);
+
+			Node node = open.poll();
+			state.unpack(node.state);
+			nodesExpanded++;
+
+			int noOfMoves = state.legalMoves(moves);
+			for (int move = 0; move < noOfMoves; move++)
+			{
+				// Make the move followed by any safe moves to the Foundations
+				autoMoves[0] = moves[move];
+				state.apply(moves[move]);
+				noOfAutoMoves = autoPlay.play(state, moves[move], autoMoves, 1);
+
+				if (seen.add(state.getHash(), node.depth + 1))
+				{
+					int[] childMoves = Arrays.copyOf(autoMoves, noOfAutoMoves);
+					Node child = new Node(state.pack(), node, childMoves,
+							node.depth + 1, heuristic.evaluate(state), order++);
+					if (state.isWon())
+						return solution(child, nodesExpanded, startTime);
+					open.add(child);
+				}
+
+				for (int undo = noOfAutoMoves - 1; undo >= 0; undo--)
+					state.undo(autoMoves[undo]);
+			}
+		}
+
+		return new Solution(Solution.UNSOLVABLE, new int[0], nodesExpanded,
+				System.nanoTime() - startTime);
+	}
+
+	/**
+	 * Builds the Solution for the given winning Node by following the parent
+	 * Nodes back to the start
+	 *
+	 * @param node the Node where the game is won
+	 * @param nodesExpanded the number of GameStates expanded
+	 * @param startTime the time the search started from System.nanoTime
+	 * @return the Solution
+	 */
+	static Solution solution(Node node, int nodesExpanded, long startTime)
+	{
+		int length = 0;
+		for (Node next = node; next != null; next = next.parent)
+			length += next.moves.length;
+
+		int[] moves = new int[length];
+		for (Node next = node; next != null; next = next.parent)
+		{
+			length -= next.moves.length;
+			System.arraycopy(next.moves, 0, moves, length, next.moves.length);
+		}
+
+		return new Solution(Solution.SOLVED, moves, nodesExpanded,
+				System.nanoTime() - startTime);
+	}
+
+	/**
+	 * A GameState waiting to be expanded along with the moves that reached it
+	 * from its parent (also used by the ParallelSolver)
+	 */
+	static class Node implements Comparable<Node>
+	{
+		PackedState state;
+		Node parent;
+		int[] moves;
+		int depth;
+		int estimate;
+		long order;
+
+		/**
+		 * Creates a new Node
+		 *
+		 * @param state the packed GameState
+		 * @param parent the Node this Node was reached from
+		 * @param moves the packed moves from the parent to this Node
+		 * @param depth the number of moves taken from the start Node
+		 * @param estimate the estimate from the Heuristic
+		 * @param order the order the Node was created in (to break ties)
+		 */
+		Node(PackedState state, Node parent, int[] moves, int depth,
+				int estimate, long order)
+		{
+			this.state = state;
+			this.parent = parent;
+			this.moves = moves;
+			this.depth = depth;
+			this.estimate = estimate;
+			this.order = order;
+		}
+
+		/**
+		 * Compares two Nodes by their estimate then by the order they were
+		 * created in (newest first, so the search keeps going deeper on ties)
+		 *
+		 * @param other the other Node to compare
+		 * @return a value < 0 if this Node should be expanded first, a value >
+		 *         0 if the other Node should be expanded first
+		 */
+		public int compareTo(Node other)
+		{
+			if (this.estimate != other.estimate)
+				return this.estimate - other.estimate;
+
+			return Long.compare(other.order, this.order);
+		}
+	}
+}
@@ -1,26 +1,72 @@
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.ObjectInputFilter;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.sql.Time;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
 
 /**
  * A Statistics class that stores the number of wins, percentage of wins,
  * longest win streak, current win streak for a game of FreeCell.
  * 
+ * Each finished game also updates some analytics straight away, so they can
+ * be shown at any time without looking back through the games played: the
+ * distributions of how long games took, how many moves each win took and
+ * how many undos were used (kept in QuantileSketches) and the win rate over
+ * the last 10, 100 and 1000 games (from a ring of the last RECENT_GAMES
+ * results, one bit for each game).
+ * 
+ * The Statistics are stored in a small binary file: a magic number (4
+ * bytes), a version (1 byte), the number of games, wins, current streak and
+ * longest streak (4 bytes each), then the number of finished games (4
+ * bytes), the ring of recent results (RECENT_GAMES / 8 bytes) and the three
+ * QuantileSketches, and last a CRC32 checksum of the rest (4 bytes), all in
+ * big-endian order. Version 1 files have no analytics, so they start with
+ * none. Older versions of the game stored the Statistics with Java
+ * serialization, so the class is still Serializable (with the
+ * serialVersionUID of those versions) so that old files can be imported.
+ * 
+ * Usage: java Statistics [statsFile]
+ * 
  * @author Jessica Jiang
  * @version November 29, 2014
  */
 public class Statistics implements Serializable
 {
+	// The serialVersionUID of the Statistics saved by older versions
+	private static final long serialVersionUID = -4104048370259661454L;
+
+	public static final int MAGIC = 0x46435354; // "FCST"
+	public static final int VERSION = 2;
+	public static final int RECENT_GAMES = 1024;
+	public static final int[] WINDOWS = { 10, 100, 1000 };
+
+	private static final int VERSION_1_SIZE = 25;
+	private static final int SIZE = 21 + 4 + RECENT_GAMES / 8 + 3
+			* QuantileSketch.SIZE + 4;
+
 	private int noOfWins;
 	private int totalGames;
 	private double percentWins;
 	private int currentStreak;
 	private int longestStreak;
 
+	// The analytics are not part of the old serialized Statistics
+	private transient int finishedGames;
+	private transient long[] recentResults;
+	private transient int[] windowWins;
+	private transient QuantileSketch gameSeconds;
+	private transient QuantileSketch movesToWin;
+	private transient QuantileSketch undosPerGame;
+
 	/**
 	 * Creates a new Statistics object with all statistics set to 0
 	 */
@@ -30,6 +76,11 @@ public class Statistics implements Serializable
 		percentWins = 0;
 		longestStreak = 0;
 		currentStreak = 0;
+		recentResults = new long[RECENT_GAMES / 64];
+		windowWins = new int[WINDOWS.length];
+		gameSeconds = new QuantileSketch();
+		movesToWin = new QuantileSketch();
+		undosPerGame = new QuantileSketch();
 	}
 
 	/**
@@ -63,6 +114,105 @@ public class Statistics implements Serializable
 		currentStreak = 0;
 	}
 
+	/**
+	 * Adds a finished game (won, given up or left when quitting) to the
+	 * analytics
+	 * 
+	 * @param won true if the game was won, false if not
+	 * @param duration how long the game took in milliseconds
+	 * @param noOfMoves the number of moves made
+	 * @param noOfUndos the number of moves undone
+	 */
+	public void addFinishedGame(boolean won, long duration, int noOfMoves,
+			int noOfUndos)
+	{
+		gameSeconds.add((int) Math.min(duration / 1000, Integer.MAX_VALUE));
+		undosPerGame.add(noOfUndos);
+		if (won)
+			movesToWin.add(noOfMoves);
+
+		// Drop the game that is leaving each window and add this one
+		for (int window = 0; window < WINDOWS.length; window++)
+			if (finishedGames >= WINDOWS[window]
+					&& isRecentWin(finishedGames - WINDOWS[window]))
+				windowWins[window]--;
+		int bit = finishedGames % RECENT_GAMES;
+		if (won)
+		{
+			recentResults[bit / 64] |= 1L << bit;
+			for (int window = 0; window < WINDOWS.length; window++)
+				windowWins[window]++;
+		}
+		else
+			recentResults[bit / 64] &= ~(1L << bit);
+		finishedGames++;
+	}
+
+	/**
+	 * Gets the win rate over the last few games
+	 * 
+	 * @param window the index of the window in WINDOWS
+	 * @return the fraction of the last WINDOWS[window] finished games that
+	 *         were won (over all the finished games if there are fewer)
+	 */
+	public double getRecentWinRate(int window)
+	{
+		int games = Math.min(finishedGames, WINDOWS[window]);
+		if (games == 0)
+			return 0;
+
+		return windowWins[window] * 1.0 / games;
+	}
+
+	/**
+	 * Gets the distribution of how long each finished game took
+	 * 
+	 * @return the number of seconds each game took
+	 */
+	public QuantileSketch getGameSeconds()
+	{
+		return gameSeconds;
+	}
+
+	/**
+	 * Gets the distribution of the number of moves each win took
+	 * 
+	 * @return the number of moves in each won game
+	 */
+	public QuantileSketch getMovesToWin()
+	{
+		return movesToWin;
+	}
+
+	/**
+	 * Gets the distribution of the number of undos in each finished game
+	 * 
+	 * @return the number of undos in each game
+	 */
+	public QuantileSketch getUndosPerGame()
+	{
+		return undosPerGame;
+	}
+
+	/**
+	 * Prints out the analytics as a String, one line for each
+	 * 
+	 * @return the analytics as a String
+	 */
+	public String analyticsToString()
+	{
+		StringBuilder analytics = new StringBuilder();
+		analytics.append("Recent Win Rate:");
+		for (int window = 0; window < WINDOWS.length; window++)
+			analytics.append(String.format("  last %d: %.2f%%", WINDOWS[window],
+					getRecentWinRate(window) * 100));
+		analytics.append(String.format("%nGame Length (seconds): %s%n",
+				gameSeconds));
+		analytics.append(String.format("Moves to Win: %s%n", movesToWin));
+		analytics.append(String.format("Undos per Game: %s%n", undosPerGame));
+		return analytics.toString();
+	}
+
 	/**
 	 * Prints out all the Statistics as a String
 	 * 
@@ -84,47 +234,267 @@ public class Statistics implements Serializable
 	}
 
 	/**
-	 * Writes all the Statistics object data to a file
+	 * Writes the Statistics in the binary format described above
+	 * 
+	 * @return the Statistics as bytes
+	 */
+	public byte[] toByteArray()
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+		buffer.putInt(MAGIC);
+		buffer.put((byte) VERSION);
+		buffer.putInt(totalGames);
+		buffer.putInt(noOfWins);
+		buffer.putInt(currentStreak);
+		buffer.putInt(longestStreak);
+		buffer.putInt(finishedGames);
+		for (long next : recentResults)
+			buffer.putLong(next);
+		gameSeconds.writeTo(buffer);
+		movesToWin.writeTo(buffer);
+		undosPerGame.writeTo(buffer);
+
+		CRC32 checksum = new CRC32();
+		checksum.update(buffer.array(), 0, SIZE - 4);
+		buffer.putInt((int) checksum.getValue());
+		return buffer.array();
+	}
+
+	/**
+	 * Reads Statistics stored by toByteArray (or by version 1, which had no
+	 * analytics)
+	 * 
+	 * @param bytes the stored Statistics
+	 * @return the Statistics
+	 * @throws IOException if the bytes are not valid Statistics
+	 */
+	public static Statistics fromByteArray(byte[] bytes) throws IOException
+	{
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		if (bytes.length < 5 || buffer.getInt() != MAGIC)
+			throw new IOException("Not a statistics file");
+		int version = buffer.get() & 0xFF;
+		int size;
+		if (version == 1)
+			size = VERSION_1_SIZE;
+		else if (version == VERSION)
+			size = SIZE;
+		else
+			throw new IOException("Unknown statistics version " + version);
+		if (bytes.length != size)
+			throw new IOException("Statistics file is the wrong size");
+
+		CRC32 checksum = new CRC32();
+		checksum.update(bytes, 0, size - 4);
+		if (buffer.getInt(size - 4) != (int) checksum.getValue())
+			throw new IOException("Statistics file is corrupted");
+
+		Statistics stats = new Statistics();
+		stats.totalGames = buffer.getInt();
+		stats.noOfWins = buffer.getInt();
+		stats.currentStreak = buffer.getInt();
+		stats.longestStreak = buffer.getInt();
+		stats.updatePercentWins();
+		if (version == 1)
+			return stats;
+
+		stats.finishedGames = buffer.getInt();
+		if (stats.finishedGames < 0)
+			throw new IOException("Statistics file is corrupted");
+		for (int next = 0; next < stats.recentResults.length; next++)
+			stats.recentResults[next] = buffer.getLong();
+		stats.gameSeconds = QuantileSketch.readFrom(buffer);
+		stats.movesToWin = QuantileSketch.readFrom(buffer);
+		stats.undosPerGame = QuantileSketch.readFrom(buffer);
+		stats.countWindowWins();
+		return stats;
+	}
+
+	/**
+	 * Writes all the Statistics to a file. The Statistics are written to a
+	 * temporary file first which then replaces the old file, so the file
+	 * always holds either the old or the new Statistics even if the game
+	 * crashes while writing
 	 * 
 	 * @param fileName the name of the file
+	 * @throws IOException if the file can't be written
 	 */
-	public void writeToFile(String fileName)
+	public void writeToFile(String fileName) throws IOException
 	{
+		GameEvents.StatisticsIOEvent event =
+				new GameEvents.StatisticsIOEvent();
+		event.begin();
+		Path path = Paths.get(fileName).toAbsolutePath();
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		FileChannel file = FileChannel.open(temp, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
 		try
 		{
-			// Write the entire Statistics object to a file
-			ObjectOutputStream fileOut = new ObjectOutputStream(
-					new FileOutputStream(fileName));
-			fileOut.writeObject(this);
-			fileOut.close();
+			ByteBuffer buffer = ByteBuffer.wrap(toByteArray());
+			while (buffer.hasRemaining())
+				file.write(buffer);
+			file.force(true);
 		}
-		catch (IOException exp)
+		finally
 		{
-			System.out.println("Error writing to the file");
+			file.close();
 		}
+
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+		event.finish(fileName, true, SIZE);
 	}
 
 	/**
-	 * Reads all the Statistics object data from a file and returns the
-	 * Statistics
+	 * Reads all the Statistics from a file. Files written by older versions
+	 * of the game (with Java serialization) are also read, and are replaced
+	 * by the new format the next time the Statistics are written
 	 * 
 	 * @param fileName the name of the file
-	 * @return the Statistics object with all the data
+	 * @return the Statistics from the file, or new Statistics if there is no
+	 *         file
+	 * @throws IOException if the file can't be read or is not valid
+	 *             Statistics (ex. it is corrupted or from a newer version),
+	 *             in which case it should not be written over (see
+	 *             moveAside)
 	 */
-	public static Statistics readFromFile(String fileName)
+	public static Statistics readFromFile(String fileName) throws IOException
 	{
+		Path path = Paths.get(fileName);
+		if (!Files.exists(path))
+			return new Statistics();
+
+		GameEvents.StatisticsIOEvent event =
+				new GameEvents.StatisticsIOEvent();
+		event.begin();
+		byte[] bytes = Files.readAllBytes(path);
+		event.finish(fileName, false, bytes.length);
+		if (bytes.length >= 2 && (bytes[0] & 0xFF) == 0xAC
+				&& (bytes[1] & 0xFF) == 0xED)
+			return readOldFormat(bytes);
+
+		return fromByteArray(bytes);
+	}
+
+	/**
+	 * Moves a Statistics file that can't be read out of the way (to the same
+	 * name with .bad on the end), so that new Statistics can be saved
+	 * without losing the old ones
+	 * 
+	 * @param fileName the name of the file
+	 * @return the name the file was moved to
+	 * @throws IOException if the file can't be moved
+	 */
+	public static String moveAside(String fileName) throws IOException
+	{
+		Path path = Paths.get(fileName);
+		Path bad = path.resolveSibling(path.getFileName() + ".bad");
+		Files.move(path, bad, StandardCopyOption.REPLACE_EXISTING);
+		return bad.toString();
+	}
+
+	/**
+	 * Reads Statistics written with Java serialization by older versions of
+	 * the game. Only a Statistics object is allowed in the stream
+	 * 
+	 * @param bytes the contents of the old file
+	 * @return the Statistics
+	 * @throws IOException if the Statistics can't be read
+	 */
+	private static Statistics readOldFormat(byte[] bytes) throws IOException
+	{
+		ObjectInputStream fileIn = new ObjectInputStream(
+				new ByteArrayInputStream(bytes));
+		fileIn.setObjectInputFilter(ObjectInputFilter.Config
+				.createFilter("Statistics;!*"));
 		try
 		{
-			ObjectInputStream fileIn = new ObjectInputStream(
-					new FileInputStream(fileName));
-			Statistics stats = (Statistics) fileIn.readObject();
-			fileIn.close();
+			// Copy the counts into new Statistics to set up the analytics
+			Statistics oldStats = (Statistics) fileIn.readObject();
+			Statistics stats = new Statistics();
+			stats.totalGames = oldStats.totalGames;
+			stats.noOfWins = oldStats.noOfWins;
+			stats.currentStreak = oldStats.currentStreak;
+			stats.longestStreak = oldStats.longestStreak;
+			stats.updatePercentWins();
 			return stats;
 		}
-		catch (Exception exp)
+		catch (ClassNotFoundException | ClassCastException exp)
 		{
-			return new Statistics();
+			throw new IOException("Not a statistics file", exp);
+		}
+		finally
+		{
+			fileIn.close();
+		}
+	}
+
+	/**
+	 * Works out the win percentage from the number of wins and games
+	 */
+	private void updatePercentWins()
+	{
+		if (totalGames == 0)
+			percentWins = 0;
+		else
+			percentWins = noOfWins * 1.0 / totalGames;
+	}
+
+	/**
+	 * Checks if a recent finished game was won
+	 * 
+	 * @param game the number of the finished game (counting from 0), one of
+	 *            the last RECENT_GAMES games
+	 * @return true if the game was won, false if not
+	 */
+	private boolean isRecentWin(int game)
+	{
+		int bit = game % RECENT_GAMES;
+		return (recentResults[bit / 64] & 1L << bit) != 0;
+	}
+
+	/**
+	 * Counts the wins in each window from the ring of recent results, after
+	 * reading the Statistics
+	 */
+	private void countWindowWins()
+	{
+		Arrays.fill(windowWins, 0);
+		for (int window = 0; window < WINDOWS.length; window++)
+		{
+			int first = Math.max(finishedGames - WINDOWS[window], 0);
+			for (int game = first; game < finishedGames; game++)
+				if (isRecentWin(game))
+					windowWins[window]++;
 		}
 	}
 
+	/**
+	 * Prints the Statistics and analytics saved in a file
+	 * 
+	 * @param args the name of the file (CardPanel.STATS_FILE if not given)
+	 */
+	public static void main(String[] args)
+	{
+		String fileName = CardPanel.STATS_FILE;
+		if (args.length > 0)
+			fileName = args[0];
+
+		Statistics stats = null;
+		try
+		{
+			stats = readFromFile(fileName);
+		}
+		catch (IOException exp)
+		{
+			System.err.println("Can't read " + fileName + ": "
+					+ exp.getMessage());
+			System.exit(1);
+		}
+		System.out.printf("Games: %d  Wins: %d (%.2f%%)  Current Streak: %d"
+				+ "  Longest Streak: %d%n", stats.totalGames, stats.noOfWins,
+				stats.percentWins * 100, stats.currentStreak,
+				stats.longestStreak);
+		System.out.print(stats.analyticsToString());
+	}
 }
@@ -1,5 +1,9 @@
+import java.awt.Graphics;
+import java.awt.GraphicsEnvironment;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
 
 /**
  * Keeps track of a moving Cascade known as a Tableau. Inherits data and methods
@@ -9,6 +13,11 @@ import java.awt.Rectangle;
  * check if this Tableau can be placed on a given GHand and to place this
  * Tableau on a given GHand.
  * 
+ * While a Tableau is dragged its Cards stay where they were picked up, and the
+ * Tableau is drawn as one image of its Cards made when it is first drawn. The
+ * Cards are only given their new positions when the Tableau is placed on a
+ * GHand, so dragging a long Tableau costs the same as dragging one Card.
+ * 
  * @author Ridout and Jessica Jiang
  * @version November 2014
  */
@@ -16,6 +25,10 @@ public class Tableau extends Cascade implements Movable
 {
 	private Cascade sourceHand;
 
+	// Where the Cards are, and the image of the Cards to draw while dragging
+	private Point cardsPosition;
+	private BufferedImage image;
+
 	/**
 	 * Creates a new Tableau
 	 * 
@@ -27,6 +40,8 @@ public class Tableau extends Cascade implements Movable
 	{
 		super(x, y);
 		this.sourceHand = sourceHand;
+		this.cardsPosition = new Point(x, y);
+		setGame(sourceHand.getGame(), sourceHand.getPile());
 	}
 
 	/**
@@ -37,17 +52,61 @@ public class Tableau extends Cascade implements Movable
 	 */
 	public void move(Point initialPos, Point finalPos)
 	{
-		// Move the Tableau
+		// Move the Tableau (the Cards are moved when it is placed)
 		position.x += finalPos.x - initialPos.x;
 		position.y += finalPos.y - initialPos.y;
+	}
+
+	/**
+	 * Draws the Cards of this Tableau in its current position. Once the Card
+	 * images are loaded, the Cards are drawn into an image the first time so
+	 * that only the one image needs to be drawn after that
+	 * 
+	 * @param g Graphics context to display this Tableau
+	 */
+	public void draw(Graphics g)
+	{
+		if (image == null && CardAtlas.isLoaded())
+			image = createImage();
 
-		// Move the Cards
-		for (Card next : hand)
+		if (image != null)
 		{
-			GCard nextGCard = (GCard) next;
-			nextGCard.move(initialPos, finalPos);
+			g.drawImage(image, position.x, position.y, null);
+			return;
 		}
 
+		// Draw the Cards moved over from where they are
+		Graphics moved = g.create();
+		moved.translate(position.x - cardsPosition.x, position.y
+				- cardsPosition.y);
+		super.draw(moved);
+		moved.dispose();
+	}
+
+	/**
+	 * Draws the Cards of this Tableau into a new image with clear corners
+	 * 
+	 * @return the image of the Cards
+	 */
+	private BufferedImage createImage()
+	{
+		Rectangle bounds = getRectangle();
+		BufferedImage cardsImage;
+		if (GraphicsEnvironment.isHeadless())
+			cardsImage = new BufferedImage(bounds.width, bounds.height,
+					BufferedImage.TYPE_INT_ARGB);
+		else
+			cardsImage = GraphicsEnvironment.getLocalGraphicsEnvironment()
+					.getDefaultScreenDevice().getDefaultConfiguration()
+					.createCompatibleImage(bounds.width, bounds.height,
+							Transparency.BITMASK);
+
+		Graphics g = cardsImage.getGraphics();
+		g.translate(-cardsPosition.x, -cardsPosition.y);
+		super.draw(g);
+		g.dispose();
+
+		return cardsImage;
 	}
 
 	/**
@@ -70,43 +129,10 @@ public class Tableau extends Cascade implements Movable
 	 */
 	public boolean canPlaceOn(GHand otherHand)
 	{
-		// Cannot place Tableau on FreeCell or Foundation
-		if (otherHand instanceof FreeCell || otherHand instanceof Foundation)
-			return false;
-
-		Card thisCard = this.hand.get(0);
-		Card otherCard = otherHand.getTopCard();
-
-		// The GHand is a Cascade
-		// Calculate the maximum number of Cards you can move at once
-		int maxCards = FreeCell.getNoOfFreeCells() + 1;
-		int noOfOpenCascades = Cascade.getNoOfOpenCascades();
-
-		// Make sure you do not count the sourceHand as an open Cascade
-		if (sourceHand.cardsLeft() == 0)
-			noOfOpenCascades--;
-
-		// Make sure you do not count the Hand you are placing the Tableau on as
-		// an open Cascade as well
-		if (otherHand.cardsLeft() == 0)
-			noOfOpenCascades--;
-
-		for (int i = 0; i < noOfOpenCascades; i++)
-			maxCards *= 2;
-
-		// Return true if the size of the Tableau is not too large and if you
-		// can
-		// place the Tableau on the Cascade
-		if (this.cardsLeft() <= maxCards)
-		{
-			if (otherHand.cardsLeft() == 0)
-				return true;
-
-			return thisCard.canPlaceOnCascade(otherCard);
-		}
-
-		// The size of the Tableau is too large
-		return false;
+		// Let the rules of the game decide, the Cards are still in the
+		// sourceHand as far as the game is concerned
+		return otherHand.getGame().canPlace(this.hand.get(0).getIndex(),
+				this.cardsLeft(), otherHand.getPile());
 	}
 
 	/**
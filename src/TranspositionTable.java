@@ -0,0 +1,144 @@
+import java.util.Arrays;
+
+/**
+ * A fixed-size table of the positions a search has already reached, keyed by
+ * the Zobrist hash of a GameState. The table is split into buckets of 4
+ * entries. When a bucket is full the entry reached at the greatest depth is
+ * replaced, since positions close to the start have the most moves left to
+ * search under them. Clearing the table for the next search is O(1): every
+ * entry is stamped with the search it belongs to.
+ *
+ * A TranspositionTable is not thread safe, so each thread should use its own.
+ *
+ * @author Ridout and Jessica Jiang
+ * @version November 2014
+ */
+public class TranspositionTable
+{
+	public static final int DEFAULT_SIZE = 1 << 20;
+	private static final int BUCKET_SIZE = 4;
+
+	private long[] keys;
+	private short[] depths;
+	private int[] searches;
+	private int search;
+	private int bucketMask;
+	private long replaced;
+
+	/**
+	 * Creates a new TranspositionTable with DEFAULT_SIZE entries
+	 */
+	public TranspositionTable()
+	{
+		this(DEFAULT_SIZE);
+	}
+
+	/**
+	 * Creates a new TranspositionTable
+	 *
+	 * @param entries the number of entries (rounded up to a power of 2, at
+	 *            least one bucket)
+	 */
+	public TranspositionTable(int entries)
+	{
+		int capacity = BUCKET_SIZE;
+		while (capacity < entries)
+			capacity *= 2;
+
+		keys = new long[capacity];
+		depths = new short[capacity];
+		searches = new int[capacity];
+		bucketMask = capacity / BUCKET_SIZE - 1;
+		search = 1;
+	}
+
+	/**
+	 * Adds a position to the table if it is not there already
+	 *
+	 * @param key the Zobrist hash of the position
+	 * @param depth the number of moves taken to reach the position
+	 * @return true if the position is new, false if it was already in the
+	 *         table
+	 */
+	public boolean add(long key, int depth)
+	{
+		int first = bucket(key);
+		int replace = first;
+		for (int entry = first; entry < first + BUCKET_SIZE; entry++)
+		{
+			// An entry from an earlier search is empty
+			if (searches[entry] != search)
+			{
+				store(entry, key, depth);
+				return true;
+			}
+
+			if (keys[entry] == key)
+			{
+				if (depth < depths[entry])
+					depths[entry] = (short) depth;
+				return false;
+			}
+
+			if (depths[entry] > depths[replace])
+				replace = entry;
+		}
+
+		// The bucket is full, replace the deepest position
+		store(replace, key, depth);
+		replaced++;
+		return true;
+	}
+
+	/**
+	 * Empties the table for a new search
+	 */
+	public void clear()
+	{
+		search++;
+		replaced = 0;
+
+		// Start again once the search stamps run out
+		if (search == Integer.MAX_VALUE)
+		{
+			Arrays.fill(searches, 0);
+			search = 1;
+		}
+	}
+
+	/**
+	 * Finds the number of positions that have been replaced by another
+	 * position since the table was last cleared
+	 *
+	 * @return the number of positions replaced
+	 */
+	public long getReplaced()
+	{
+		return replaced;
+	}
+
+	/**
+	 * Finds the first entry of the bucket for a position
+	 *
+	 * @param key the Zobrist hash of the position
+	 * @return the index of the first entry in the bucket
+	 */
+	private int bucket(long key)
+	{
+		return ((int) (key ^ key >>> 32) & bucketMask) * BUCKET_SIZE;
+	}
+
+	/**
+	 * Stores a position in an entry
+	 *
+	 * @param entry the index of the entry
+	 * @param key the Zobrist hash of the position
+	 * @param depth the number of moves taken to reach the position
+	 */
+	private void store(int entry, long key, int depth)
+	{
+		keys[entry] = key;
+		depths[entry] = (short) Math.min(depth, Short.MAX_VALUE);
+		searches[entry] = search;
+	}
+}